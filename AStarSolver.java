@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds the shortest path between two cells of a {@link WallGrid} with A*.<br>
+ * Cells are expanded in order of their distance from the start plus the
+ * {@link Topology#distance(int, int) distance} to the finish when there are no walls, which
+ * is the Manhattan distance on rectangular grids. Cells that lead away from the finish are
+ * expanded late or not at all. Among cells with the same estimate the one furthest from the
+ * start goes first, which follows a corridor to its end before trying a new one.<br>
+ * The paths of a perfect maze wind a lot, so the estimate is often far too low and A*
+ * still expands a large part of the maze. It pays off on mazes with loops or open areas;
+ * on perfect mazes {@link MazeSolver} stopping at the finish is usually as fast.
+ * </p>
+ * <p>
+ * The open set is an {@link IndexedMinHeap} of packed cell ids. Cells reached by an earlier
+ * search are recognised by a search number instead of clearing the arrays, so every query
+ * costs time in proportion to the cells it expands and allocates only its path.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class AStarSolver {
+
+    private final WallGrid grid;
+
+    private final Topology topology;
+
+    private final IndexedMinHeap open;
+
+    /* Passages from the start, valid for cells whose search number is the current one. */
+    private final int[] dist;
+
+    /* The cell every reached cell was reached from. */
+    private final int[] prev;
+
+    /* The number of the search that last reached every cell. */
+    private final int[] reachedBy;
+
+    /* The number of the current search, never zero. */
+    private int search;
+
+    /* The number of cells expanded by the last search. */
+    private int expanded;
+
+    /**
+     * Creates a solver for the given grid. The grid may be carved again between searches.
+     * @param grid The passages to search.
+     */
+    public AStarSolver(WallGrid grid) {
+        this.grid = grid;
+        topology = grid.getTopology();
+        open = new IndexedMinHeap(grid.size());
+        dist = new int[grid.size()];
+        prev = new int[grid.size()];
+        reachedBy = new int[grid.size()];
+    }
+
+    /**
+     * Searches from the start until the finish is expanded.
+     * @param start The packed id of the start cell.
+     * @param finish The packed id of the finish cell.
+     * @return the number of passages between start and finish or
+     * {@link MazeSolver#UNREACHABLE}.
+     */
+    public int solve(int start, int finish) {
+        if (++search == 0) {
+            // Every number has been used, forget all earlier searches
+            Arrays.fill(reachedBy, 0);
+            search = 1;
+        }
+        open.clear();
+        expanded = 0;
+        int directions = grid.directions();
+        reach(start, 0, MazeSolver.NO_PARENT);
+        open.add(start, priority(0, topology.distance(start, finish)));
+        while (!open.isEmpty()) {
+            int cell = open.poll();
+            expanded++;
+            if (cell == finish) {
+                return dist[finish];
+            }
+            int next = dist[cell] + 1;
+            for (int direction = 0; direction < directions; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int neighbor = grid.neighbor(cell, direction);
+                    if (reachedBy[neighbor] != search) {
+                        reach(neighbor, next, cell);
+                        open.add(neighbor, priority(next, topology.distance(neighbor, finish)));
+                    } else if (next < dist[neighbor] && open.contains(neighbor)) {
+                        reach(neighbor, next, cell);
+                        open.decreasePriority(neighbor, priority(next, topology.distance(neighbor, finish)));
+                    }
+                }
+            }
+        }
+        return MazeSolver.UNREACHABLE;
+    }
+
+    /**
+     * Returns the number of cells expanded by the last search, including the finish.
+     */
+    public int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Returns the number of passages from the start of the last search to the cell, or
+     * {@link MazeSolver#UNREACHABLE} if the search did not reach it.
+     */
+    public int distance(int id) {
+        return reachedBy[id] == search ? dist[id] : MazeSolver.UNREACHABLE;
+    }
+
+    /**
+     * Follows the parents of the last search from the finish back to the start.
+     * @param finish The finish of the last search.
+     * @return the ids of the cells on the path in order from start to finish, or null if
+     * the finish was not reached.
+     */
+    public int[] path(int finish) {
+        if (distance(finish) == MazeSolver.UNREACHABLE) {
+            return null;
+        }
+        int[] path = new int[dist[finish] + 1];
+        int cell = finish;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = prev[cell];
+        }
+        return path;
+    }
+
+    private void reach(int cell, int distance, int parent) {
+        reachedBy[cell] = search;
+        dist[cell] = distance;
+        prev[cell] = parent;
+    }
+
+    /**
+     * Orders by the estimated length of the path through the cell and then by the larger
+     * distance from the start.
+     */
+    private static long priority(int distance, int estimate) {
+        return ((long) (distance + estimate) << 32) - distance;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The active cells of the growing tree algorithm, kept as a deque of packed cell ids in an
+ * <code>int[]</code>.<br>
+ * Index zero is the oldest member and <code>size() - 1</code> the newest. Adding at the
+ * newest end and removing from either end keep the order of the remaining members. Removing
+ * from the middle moves the newest member into the hole, so every operation is O(1).
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class ActiveCells {
+
+    /* The members live between head (inclusive) and tail (exclusive). */
+    private int[] cells;
+
+    private int head;
+
+    private int tail;
+
+    /**
+     * Creates an empty deque.
+     * @param initialCapacity The number of members that fit before the array has to grow.
+     */
+    public ActiveCells(int initialCapacity) {
+        cells = new int[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * Adds a cell as the newest member.
+     */
+    public void add(int id) {
+        if (tail == cells.length) {
+            makeRoom();
+        }
+        cells[tail++] = id;
+    }
+
+    /**
+     * Returns the member at the given index, where zero is the oldest member.
+     */
+    public int get(int index) {
+        return cells[head + index];
+    }
+
+    /**
+     * Removes the member at the given index. Members at either end are removed without
+     * changing the order of the rest, any other member is replaced by the newest member.
+     * @param index A position between zero and size() - 1.
+     * @return The packed id of the removed cell.
+     */
+    public int removeAt(int index) {
+        int position = head + index;
+        int id = cells[position];
+        if (position == head) {
+            head++;
+        } else {
+            tail--;
+            cells[position] = cells[tail];
+        }
+        return id;
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * Moves the members to the front of the array when removals from the old end freed at
+     * least half of it, or doubles the array otherwise.
+     */
+    private void makeRoom() {
+        int size = size();
+        if (head >= cells.length / 2) {
+            System.arraycopy(cells, head, cells, 0, size);
+        } else {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+            System.arraycopy(cells, head, cells, 0, size);
+        }
+        head = 0;
+        tail = size;
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds the shortest path between two cells of a {@link WallGrid} with a breadth first
+ * search from both ends.<br>
+ * The search grows whichever frontier is smaller by one whole level at a time, and stops
+ * after the level in which the two searches first touch. Each side only has to reach about
+ * half way, so when the finish is far from the start far fewer cells are visited than by a
+ * search from the start alone. The path is stitched together from the parents of both
+ * sides at the passage where they met.
+ * </p>
+ * <p>
+ * Like {@link AStarSolver} the cells of earlier searches are recognised by a search
+ * number, so the arrays are allocated once and never cleared.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class BidirectionalSolver {
+
+    private final WallGrid grid;
+
+    /* The frontiers of the two sides; every cell enters at most one of them once. */
+    private final int[] forwardQueue;
+
+    private final int[] backwardQueue;
+
+    /* Passages from the root of the side that reached the cell. */
+    private final int[] dist;
+
+    /* The parent towards the root of the side that reached the cell. */
+    private final int[] prev;
+
+    /* The current search number for cells reached from the start, its negation from the finish. */
+    private final int[] reachedBy;
+
+    private int search;
+
+    /* The passage where the sides met, from the start side cell to the finish side cell. */
+    private int meetForward;
+
+    private int meetBackward;
+
+    /* The number of cells reached by the last search. */
+    private int visited;
+
+    /* The length of the shortest path through a passage between the sides found so far. */
+    private int best;
+
+    /**
+     * Creates a solver for the given grid. The grid may be carved again between searches.
+     * @param grid The passages to search.
+     */
+    public BidirectionalSolver(WallGrid grid) {
+        this.grid = grid;
+        forwardQueue = new int[grid.size()];
+        backwardQueue = new int[grid.size()];
+        dist = new int[grid.size()];
+        prev = new int[grid.size()];
+        reachedBy = new int[grid.size()];
+    }
+
+    /**
+     * Searches from both ends until the two searches meet.
+     * @param start The packed id of the start cell.
+     * @param finish The packed id of the finish cell.
+     * @return the number of passages between start and finish or
+     * {@link MazeSolver#UNREACHABLE}.
+     */
+    public int solve(int start, int finish) {
+        if (++search == Integer.MAX_VALUE) {
+            // Every number has been used, forget all earlier searches
+            Arrays.fill(reachedBy, 0);
+            search = 1;
+        }
+        meetForward = -1;
+        meetBackward = -1;
+        visited = 1;
+        reach(start, search, 0, MazeSolver.NO_PARENT);
+        if (start == finish) {
+            meetForward = start;
+            meetBackward = start;
+            return 0;
+        }
+        visited++;
+        reach(finish, -search, 0, MazeSolver.NO_PARENT);
+        forwardQueue[0] = start;
+        backwardQueue[0] = finish;
+        // Each frontier is the range [head, tail) of its queue
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+        best = Integer.MAX_VALUE;
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                forwardTail = expandLevel(forwardQueue, forwardHead, levelEnd, search);
+                forwardHead = levelEnd;
+            } else {
+                int levelEnd = backwardTail;
+                backwardTail = expandLevel(backwardQueue, backwardHead, levelEnd, -search);
+                backwardHead = levelEnd;
+            }
+            if (best != Integer.MAX_VALUE) {
+                return best;
+            }
+        }
+        return MazeSolver.UNREACHABLE;
+    }
+
+    /**
+     * Reaches the neighbors of one level of a frontier and records the shortest passage
+     * to a cell of the other side in best.
+     * @param queue The queue of the side.
+     * @param head The first cell of the level.
+     * @param end The end of the level, which is also the tail of the queue.
+     * @param side The mark of the side, positive for the start and negative for the finish.
+     * @return the new tail of the queue.
+     */
+    private int expandLevel(int[] queue, int head, int end, int side) {
+        int directions = grid.directions();
+        int tail = end;
+        for (int i = head; i < end; i++) {
+            int cell = queue[i];
+            int next = dist[cell] + 1;
+            for (int direction = 0; direction < directions; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int neighbor = grid.neighbor(cell, direction);
+                    int mark = reachedBy[neighbor];
+                    if (mark == -side) {
+                        int length = next + dist[neighbor];
+                        if (length < best) {
+                            best = length;
+                            meetForward = side > 0 ? cell : neighbor;
+                            meetBackward = side > 0 ? neighbor : cell;
+                        }
+                    } else if (mark != side) {
+                        reach(neighbor, side, next, cell);
+                        queue[tail++] = neighbor;
+                        visited++;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Returns the number of cells reached by the last search from either side.
+     */
+    public int getVisited() {
+        return visited;
+    }
+
+    /**
+     * Stitches the path of the last search together from the parents of both sides.
+     * @return the ids of the cells on the path in order from start to finish, or null if
+     * the sides did not meet.
+     */
+    public int[] path() {
+        if (meetForward < 0) {
+            return null;
+        }
+        if (meetForward == meetBackward) {
+            return new int[] {meetForward};
+        }
+        int forwardLength = dist[meetForward] + 1;
+        int[] path = new int[forwardLength + dist[meetBackward] + 1];
+        int cell = meetForward;
+        for (int i = forwardLength - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = prev[cell];
+        }
+        cell = meetBackward;
+        for (int i = forwardLength; i < path.length; i++) {
+            path[i] = cell;
+            cell = prev[cell];
+        }
+        return path;
+    }
+
+    private void reach(int cell, int side, int distance, int parent) {
+        reachedBy[cell] = side;
+        dist[cell] = distance;
+        prev[cell] = parent;
+    }
+}
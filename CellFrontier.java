@@ -0,0 +1,92 @@
+/**
+ * <p>
+ * A set of packed cell ids with O(1) add, membership test and removal at any index.<br>
+ * The members are kept densely in an array so a random member can be picked by index.
+ * Removing a member moves the last member into its slot, and a position index remembers
+ * where every member lives so membership and removal never scan the array.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class CellFrontier {
+
+    /* The members of the set packed at the front of the array. */
+    private final int[] cells;
+
+    /* The position of each cell in the cells array plus one, zero when the cell is not a member. */
+    private final int[] positions;
+
+    /* The number of members. */
+    private int size;
+
+    /**
+     * Creates an empty frontier able to hold every cell id below the given capacity.
+     * @param capacity The number of cells in the maze.
+     */
+    public CellFrontier(int capacity) {
+        cells = new int[capacity];
+        positions = new int[capacity];
+    }
+
+    /**
+     * Adds the cell to the set if it is not already a member.
+     * @param id The packed cell id.
+     * @return true if the cell was added.
+     */
+    public boolean add(int id) {
+        if (positions[id] != 0) {
+            return false;
+        }
+        cells[size] = id;
+        size++;
+        positions[id] = size;
+        return true;
+    }
+
+    /**
+     * Returns true if the cell is a member of the set.
+     */
+    public boolean contains(int id) {
+        return positions[id] != 0;
+    }
+
+    /**
+     * Returns the member stored at the given index.
+     */
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Removes and returns the member stored at the given index. The last member takes its place.
+     * @param index A position between zero and size() - 1.
+     * @return The packed id of the removed cell.
+     */
+    public int removeAt(int index) {
+        int id = cells[index];
+        size--;
+        int last = cells[size];
+        cells[index] = last;
+        positions[last] = index + 1;
+        positions[id] = 0;
+        return id;
+    }
+
+    /**
+     * Removes every member.
+     */
+    public void clear() {
+        while (size > 0) {
+            size--;
+            positions[cells[size]] = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
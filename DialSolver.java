@@ -0,0 +1,197 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds the cheapest paths through a maze whose passages have small whole number costs,
+ * with Dial's algorithm.<br>
+ * Dijkstra's algorithm needs a priority queue because it can not know how far apart the
+ * distances in its queue are. With costs of at most C every queued distance lies between
+ * the current one and C more, so a ring of C + 1 buckets indexed by distance modulo C + 1
+ * replaces the heap: cells are added and moved in O(1) and the next cell is found by
+ * stepping through at most C buckets.
+ * </p>
+ * <p>
+ * The buckets are doubly linked lists threaded through two <code>int</code> arrays, so a
+ * cell whose distance drops moves to its new bucket without allocating or leaving a stale
+ * entry behind. Like {@link MazeSolver} every array is allocated once and reused.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class DialSolver {
+
+    private final WallGrid grid;
+
+    private final Terrain terrain;
+
+    /* The cost of the cheapest path from the start to every reached cell. */
+    private final int[] dist;
+
+    /* The cell every reached cell was reached from on its cheapest path. */
+    private final int[] prev;
+
+    /* The links of the bucket lists; -1 ends a list. */
+    private final int[] nextInBucket;
+
+    private final int[] previousInBucket;
+
+    /* True for cells whose distance is final. */
+    private final boolean[] settled;
+
+    /* The first cell of every bucket, grown when the terrain gets more expensive. */
+    private int[] buckets;
+
+    /**
+     * Creates a solver for the given terrain and its grid.
+     * @param terrain The costs of the passages.
+     */
+    public DialSolver(Terrain terrain) {
+        this.terrain = terrain;
+        grid = terrain.getGrid();
+        dist = new int[grid.size()];
+        prev = new int[grid.size()];
+        nextInBucket = new int[grid.size()];
+        previousInBucket = new int[grid.size()];
+        settled = new boolean[grid.size()];
+        buckets = new int[0];
+    }
+
+    /**
+     * Computes the cost of the cheapest path from the start to every reachable cell.
+     * @param start The packed id of the start cell.
+     */
+    public void solve(int start) {
+        search(start, -1);
+    }
+
+    /**
+     * Searches from the start until the finish is settled.
+     * @param start The packed id of the start cell.
+     * @param finish The packed id of the cell to stop at.
+     * @return the cost of the cheapest path or {@link MazeSolver#UNREACHABLE}.
+     */
+    public int solve(int start, int finish) {
+        search(start, finish);
+        return settled[finish] ? dist[finish] : MazeSolver.UNREACHABLE;
+    }
+
+    /**
+     * Returns the cost of the cheapest path from the start of the last search to the cell,
+     * or {@link MazeSolver#UNREACHABLE} if it was not reached.
+     */
+    public int distance(int id) {
+        return dist[id];
+    }
+
+    /**
+     * Returns the cell the given cell was reached from in the last search.
+     */
+    public int previous(int id) {
+        return prev[id];
+    }
+
+    /**
+     * Follows the parents of the last search from the finish back to the start.
+     * @param finish The packed id of the last cell of the path.
+     * @return the ids of the cells on the path in order from start to finish, or null if
+     * the finish was not settled.
+     */
+    public int[] path(int finish) {
+        if (!settled[finish]) {
+            return null;
+        }
+        int length = 1;
+        for (int cell = finish; prev[cell] != MazeSolver.NO_PARENT; cell = prev[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int cell = finish;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = prev[cell];
+        }
+        return path;
+    }
+
+    /**
+     * Dial's algorithm from the start, stopping once the target is settled.
+     * @param target The cell to stop at or -1 to settle every reachable cell.
+     */
+    private void search(int start, int target) {
+        int ring = terrain.getMaxCost() + 1;
+        if ((long) grid.size() * terrain.getMaxCost() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Path costs of " + grid.size() + " cells of up to "
+                    + terrain.getMaxCost() + " may not fit in an int");
+        }
+        if (buckets.length < ring) {
+            buckets = new int[ring];
+        }
+        Arrays.fill(buckets, 0, ring, -1);
+        Arrays.fill(dist, MazeSolver.UNREACHABLE);
+        Arrays.fill(prev, MazeSolver.NO_PARENT);
+        Arrays.fill(settled, false);
+        int directions = grid.directions();
+        dist[start] = 0;
+        link(start, 0);
+        int queued = 1;
+        int current = 0;
+        while (queued > 0) {
+            // Every queued distance is within ring - 1 of the current one, so this stops
+            int bucket = current % ring;
+            while (buckets[bucket] < 0) {
+                current++;
+                bucket = current % ring;
+            }
+            int cell = buckets[bucket];
+            unlink(cell, bucket);
+            queued--;
+            settled[cell] = true;
+            if (cell == target) {
+                return;
+            }
+            for (int direction = 0; direction < directions; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int neighbor = grid.neighbor(cell, direction);
+                    if (settled[neighbor]) {
+                        continue;
+                    }
+                    int candidate = current + terrain.cost(cell, direction);
+                    int known = dist[neighbor];
+                    if (known == MazeSolver.UNREACHABLE) {
+                        queued++;
+                    } else if (candidate < known) {
+                        unlink(neighbor, known % ring);
+                    } else {
+                        continue;
+                    }
+                    dist[neighbor] = candidate;
+                    prev[neighbor] = cell;
+                    link(neighbor, candidate % ring);
+                }
+            }
+        }
+    }
+
+    private void link(int cell, int bucket) {
+        int first = buckets[bucket];
+        nextInBucket[cell] = first;
+        previousInBucket[cell] = -1;
+        if (first >= 0) {
+            previousInBucket[first] = cell;
+        }
+        buckets[bucket] = cell;
+    }
+
+    private void unlink(int cell, int bucket) {
+        int next = nextInBucket[cell];
+        int previous = previousInBucket[cell];
+        if (previous >= 0) {
+            nextInBucket[previous] = next;
+        } else {
+            buckets[bucket] = next;
+        }
+        if (next >= 0) {
+            previousInBucket[next] = previous;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * <p>
+ * A fixed size array of directions packed into a <code>long[]</code>, two bits per cell for
+ * topologies with up to four directions and four bits per cell for more.<br>
+ * Generators use it to remember which neighbor each cell was carved from, so walking
+ * back towards the start of the maze never needs a stack of cells.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class DirectionArray {
+
+    /* The number of bits used to store one direction, a power of two so no direction spans two words. */
+    private final int bitsPerDirection;
+
+    /* The mask for a single direction. */
+    private final long directionMask;
+
+    /* The packed directions. */
+    private final long[] words;
+
+    /**
+     * Creates an array for four directions with room for the given number of cells.
+     * Every direction starts as NORTH.
+     * @param size The number of cells.
+     */
+    public DirectionArray(int size) {
+        this(size, WallGrid.DIRECTIONS);
+    }
+
+    /**
+     * Creates an array with room for the given number of cells. Every direction starts as zero.
+     * @param size The number of cells.
+     * @param directions The number of directions of the topology, at most sixteen.
+     */
+    public DirectionArray(int size, int directions) {
+        if (directions < 1 || directions > 16) {
+            throw new IllegalArgumentException("Between 1 and 16 directions are supported: " + directions);
+        }
+        bitsPerDirection = directions <= 4 ? 2 : 4;
+        directionMask = (1L << bitsPerDirection) - 1;
+        words = new long[(int) (((long) size * bitsPerDirection + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * Returns the direction stored for the given cell.
+     */
+    public int get(int id) {
+        long bit = (long) id * bitsPerDirection;
+        return (int) ((words[(int) (bit >>> 6)] >>> bit) & directionMask);
+    }
+
+    /**
+     * Stores a direction for the given cell.
+     * @param id The packed id of the cell.
+     * @param direction One of the directions of the topology.
+     */
+    public void set(int id, int direction) {
+        long bit = (long) id * bitsPerDirection;
+        int word = (int) (bit >>> 6);
+        words[word] = (words[word] & ~(directionMask << bit)) | ((direction & directionMask) << bit);
+    }
+}
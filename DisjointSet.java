@@ -0,0 +1,80 @@
+/**
+ * <p>
+ * A disjoint set forest over the ids 0 to size - 1 stored in primitive arrays.<br>
+ * Finding a root halves the path it walks and unions attach the shorter tree below the
+ * taller one, so any sequence of operations runs in near constant amortized time.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class DisjointSet {
+
+    /* The parent of every element. A root is its own parent. */
+    private final int[] parent;
+
+    /* An upper bound on the height of the tree below every root. */
+    private final byte[] rank;
+
+    /* The number of disjoint sets. */
+    private int count;
+
+    /**
+     * Creates a forest where every element is in a set of its own.
+     * @param size The number of elements.
+     */
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        count = size;
+    }
+
+    /**
+     * Returns the root of the set that contains the element.
+     */
+    public int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets that contain the two elements.
+     * @return true if the elements were in different sets.
+     */
+    public boolean union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return false;
+        }
+        if (rank[firstRoot] < rank[secondRoot]) {
+            parent[firstRoot] = secondRoot;
+        } else if (rank[firstRoot] > rank[secondRoot]) {
+            parent[secondRoot] = firstRoot;
+        } else {
+            parent[secondRoot] = firstRoot;
+            rank[firstRoot]++;
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Returns true if both elements are in the same set.
+     */
+    public boolean connected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    /**
+     * Returns the number of disjoint sets.
+     */
+    public int count() {
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * Generates a maze one row at a time using Eller's algorithm.<br>
+ * Only the set label of each cell in the current row is kept, so the memory used does not
+ * depend on the number of rows. Finished rows are pushed to a {@link MazeRowSink}, for
+ * example a {@link MazeTextWriter}, which lets very tall mazes stream straight to disk.
+ * </p>
+ * <ol>
+ * <li>Put every cell of the row that is not in a set yet into a set of its own.
+ * <li>Randomly join adjacent cells that are in different sets.
+ * <li>Randomly open passages down, at least one for every set, so no set is cut off.
+ * <li>Cells without a passage down start the next row in a new set.
+ * <li>On the last row join every pair of adjacent cells that are in different sets.
+ * </ol>
+ * Sources:
+ * <ul>
+ * <li>http://www.neocomputer.org/projects/eller.html</li>
+ * </ul>
+ *
+ * @author tekgeek88
+ */
+public class EllerMazeGenerator {
+
+    private final int width;
+
+    private final long rows;
+
+    private final long seed;
+
+    /**
+     * Creates a generator for a maze of the given size with a random seed.
+     *
+     * @param width The number of columns.
+     * @param rows The number of rows, which may be far more than fits in memory.
+     */
+    public EllerMazeGenerator(int width, long rows) {
+        this(width, rows, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a generator for a maze of the given size. Every call to generate produces the
+     * same maze.
+     *
+     * @param width The number of columns.
+     * @param rows The number of rows, which may be far more than fits in memory.
+     * @param seed The seed of the random number generator.
+     */
+    public EllerMazeGenerator(int width, long rows, long seed) {
+        if (width < 1 || rows < 1) {
+            throw new IllegalArgumentException("Maze dimensions must be positive: " + width + " x " + rows);
+        }
+        this.width = width;
+        this.rows = rows;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the maze and pushes every row to the sink.
+     *
+     * @param sink Receives the rows from top to bottom.
+     * @throws IOException if the sink fails to accept a row.
+     */
+    public void generate(MazeRowSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        // The set label of every cell in the current row, -1 when it has none yet.
+        // At most width sets exist at a time so every label is below width.
+        int[] sets = new int[width];
+        // Joins labels while the current row is carved.
+        int[] parent = new int[width];
+        // The number of cells of a set that are still to be visited in the current row.
+        int[] remaining = new int[width];
+        boolean[] hasPassageDown = new boolean[width];
+        boolean[] labelUsed = new boolean[width];
+        boolean[] east = new boolean[width];
+        boolean[] south = new boolean[width];
+        Arrays.fill(sets, -1);
+
+        for (long row = 0; row < rows; row++) {
+            boolean lastRow = row == rows - 1;
+
+            // 1. Give every cell without a set a fresh label
+            Arrays.fill(labelUsed, false);
+            for (int x = 0; x < width; x++) {
+                if (sets[x] >= 0) {
+                    labelUsed[sets[x]] = true;
+                }
+            }
+            int nextLabel = 0;
+            for (int x = 0; x < width; x++) {
+                if (sets[x] < 0) {
+                    while (labelUsed[nextLabel]) {
+                        nextLabel++;
+                    }
+                    sets[x] = nextLabel;
+                    labelUsed[nextLabel] = true;
+                }
+            }
+            for (int label = 0; label < width; label++) {
+                parent[label] = label;
+            }
+
+            // 2. Join adjacent cells in different sets
+            for (int x = 0; x < width - 1; x++) {
+                int left = find(parent, sets[x]);
+                int right = find(parent, sets[x + 1]);
+                east[x] = left != right && (lastRow || random.nextBoolean());
+                if (east[x]) {
+                    parent[right] = left;
+                }
+            }
+            east[width - 1] = false;
+            for (int x = 0; x < width; x++) {
+                sets[x] = find(parent, sets[x]);
+            }
+
+            // 3. Open at least one passage down from every set
+            if (lastRow) {
+                Arrays.fill(south, false);
+            } else {
+                Arrays.fill(remaining, 0);
+                Arrays.fill(hasPassageDown, false);
+                for (int x = 0; x < width; x++) {
+                    remaining[sets[x]]++;
+                }
+                for (int x = 0; x < width; x++) {
+                    int set = sets[x];
+                    remaining[set]--;
+                    south[x] = random.nextBoolean() || (remaining[set] == 0 && !hasPassageDown[set]);
+                    if (south[x]) {
+                        hasPassageDown[set] = true;
+                    }
+                }
+            }
+
+            sink.acceptRow(row, east, south);
+
+            // 4. Cells without a passage down leave their set
+            for (int x = 0; x < width; x++) {
+                if (!south[x]) {
+                    sets[x] = -1;
+                }
+            }
+        }
+        sink.finish();
+    }
+
+    /**
+     * Finds the root label of the given label while halving the path to it.
+     */
+    private static int find(int[] parent, int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -6,15 +7,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Map.Entry;
 import java.util.Observable;
-import java.util.PriorityQueue;
 import java.util.Queue;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Graph<Type> extends Observable {
 
-    /* Random number generator */
-    private static final Random RANDOM = new Random();
+    /* Random number generator of this graph, so graphs never contend on a shared seed */
+    private final SplittableRandom random;
 
     public static final double INFINITY = Double.MAX_VALUE;
 
@@ -22,7 +23,21 @@ public class Graph<Type> extends Observable {
 
     private boolean isDirected;
 
-    public Graph<Type> solution;
+    /* Every vertex by its dense id, the order in which the vertices were added. */
+    private final List<Vertex<Type>> vertexList;
+
+    /* The dense ids of the vertices on the last solution, from the start to the destination. */
+    private int[] solutionPath;
+
+    /* The last solution as a graph, built from solutionPath when it is first requested. */
+    private Graph<Type> solution;
+
+    /* The distances, parents and queue of dijkstra by dense id, kept for the next call. */
+    private double[] distances;
+
+    private int[] previous;
+
+    private IndexedDaryHeap queue;
 
     public Graph() {
         this(false);
@@ -30,8 +45,20 @@ public class Graph<Type> extends Observable {
     }
 
     public Graph(boolean isDirected) {
+        this(isDirected, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a graph whose random edges and vertices are drawn from the given seed, so the
+     * same graph built the same way always makes the same random choices.
+     * @param isDirected True for a directed graph.
+     * @param seed The seed of the random number generator.
+     */
+    public Graph(boolean isDirected, long seed) {
         vertexMap = new LinkedHashMap<Type, Vertex<Type>>();
+        vertexList = new ArrayList<Vertex<Type>>();
         this.isDirected = isDirected;
+        random = new SplittableRandom(seed);
     }
 
     public void addEdge(Edge<Type> edge) {
@@ -65,7 +92,9 @@ public class Graph<Type> extends Observable {
         Vertex<Type> v = vertexMap.get(vertexValue);
         if (v == null) {
             v = new Vertex<Type>(vertexValue);
+            v.id = vertexList.size();
             vertexMap.put(vertexValue, v);
+            vertexList.add(v);
         }
         return v;
     }
@@ -74,7 +103,7 @@ public class Graph<Type> extends Observable {
         Edge<Type> tempEdge = null;
         List<Edge<Type>> edges = getEdges(source);
         if(edges != null && !edges.isEmpty()) {
-            tempEdge = edges.get(RANDOM.nextInt(edges.size()));
+            tempEdge = edges.get(random.nextInt(edges.size()));
         }
         return tempEdge;
     }
@@ -83,7 +112,7 @@ public class Graph<Type> extends Observable {
         Edge<Type> tempEdge = null;
         List<Edge<Type>> edges = getEdges(source);
         if(edges != null && !edges.isEmpty()) {
-            tempEdge = edges.get(RANDOM.nextInt(edges.size()));
+            tempEdge = edges.get(random.nextInt(edges.size()));
         }
         return tempEdge;
     }
@@ -111,44 +140,76 @@ public class Graph<Type> extends Observable {
     public Vertex<Type> getRandomVertex() {
         Vertex<Type> v = null;
         if (!vertexMap.isEmpty()) {
-            v = getVertexes().get(RANDOM.nextInt(vertexMap.size()));
+            v = getVertexes().get(random.nextInt(vertexMap.size()));
         }
         return v;
     }
 
     /**
-     * This method is a private helper method not to be used externally.
-     * Recursive routine used to print the shortest path to destination<br>
-     * after running shortest path algorithm. The path is known to exist.
-     * @param dest
-     */
-    private void generateSolutionGraphRecursively(Vertex<Type> dest) {
-        solution = new Graph<Type>(true);
-        if (dest.prev != null) {
-            generateSolutionGraphRecursively(dest.prev);
-        }
-        if (dest.prev != null && dest.value != null) {
-            solution.addEdge(dest.prev.value, dest.value);
-        }
-    }
-
-    /**
-     * <p>This method is used to print the path and also handle unreachables.<br>
-     * Calls the recursive printPath method after the shortest path algorithm<br>
-     * has been run.
+     * <p>This method is used to record the path and also handle unreachables.<br>
+     * Walks the prev links from the destination back to the start after the shortest<br>
+     * path algorithm has been run and stores the dense ids of the vertices in an array,<br>
+     * so long paths need neither recursion nor a graph per step. The solution graph is<br>
+     * only built when {@link #getSolution()} asks for it.
      * @param destName
      *          The desired destination for which the path is desired.
      */
     public void generateSolutionGraph(Type destName) {
+        solutionPath = null;
+        solution = null;
         Vertex<Type> vertex = vertexMap.get(destName);
         if (vertex != null && vertex.dist < INFINITY) {
-            generateSolutionGraphRecursively(vertex);
-            if (vertex.prev.value != null) {
-                solution.addEdge(vertex.prev.value, vertex.value);
+            int length = 0;
+            for (Vertex<Type> v = vertex; v != null; v = v.prev) {
+                length++;
             }
+            int[] path = new int[length];
+            Vertex<Type> v = vertex;
+            for (int i = length - 1; i >= 0; i--) {
+                path[i] = v.id;
+                v = v.prev;
+            }
+            solutionPath = path;
         }
     }
 
+    /**
+     * Returns the dense ids of the vertices on the last solution in order from the start<br>
+     * to the destination, or null if there is no solution. {@link #getVertexById(int)} turns<br>
+     * an id back into its vertex.
+     * @return
+     */
+    public int[] getSolutionPath() {
+        return solutionPath;
+    }
+
+    /**
+     * Returns the last solution as a directed graph whose vertices are ordered from the<br>
+     * start to the destination, or null if there is no solution.
+     * @return
+     */
+    public Graph<Type> getSolution() {
+        if (solution == null && solutionPath != null) {
+            Graph<Type> path = new Graph<Type>(true);
+            path.getVertex(vertexList.get(solutionPath[0]).value);
+            for (int i = 1; i < solutionPath.length; i++) {
+                path.addEdge(vertexList.get(solutionPath[i - 1]).value, vertexList.get(solutionPath[i]).value);
+            }
+            solution = path;
+        }
+        return solution;
+    }
+
+    /**
+     * Returns the vertex with the given dense id. Ids count up from zero in the order<br>
+     * the vertices were added.
+     * @param id
+     * @return
+     */
+    public Vertex<Type> getVertexById(int id) {
+        return vertexList.get(id);
+    }
+
     /**
      * Clears all of the previous weights and resets all vertices back to there initial values.
      */
@@ -270,38 +331,54 @@ public class Graph<Type> extends Observable {
     /**
      * Single-source weighted shortest-path algorithm.
      * This algorithm was given as an example from the Data Structures
-     * and Problem solving book.
+     * and Problem solving book.<br>
+     * The queue is an indexed d-ary heap of dense vertex ids: a vertex whose distance<br>
+     * drops is moved up in place instead of queued again, so the heap never holds more<br>
+     * than one entry per vertex and relaxing an edge allocates nothing. The distances and<br>
+     * parents are kept in arrays that are reused by the next call and copied into the<br>
+     * vertices at the end.
      */
     public void dijkstra(Type startValue) {
-        PriorityQueue<Edge<Type>> priorityQueue = new PriorityQueue<Edge<Type>>();
-
         Vertex<Type> start = vertexMap.get(startValue);
 
         clearAll();
-        priorityQueue.add(new Edge<Type>(start, 0));
-        start.dist = 0;
-
-        int vertexCount = 0;
-        while(!priorityQueue.isEmpty() && vertexCount < vertexMap.size()) {
-            Edge<Type> vrec = priorityQueue.remove();
-            Vertex<Type> v = vrec.dest;
-            if( v.scratch != 0)  // already processed v
-                continue;
-
-            v.scratch = 1;
-            vertexCount++;
-
-            for(Edge<Type> e : v.adj ) {
-                Vertex<Type> vertex = e.dest;
-                double currentVost = e.cost;
-
-                if( vertex.dist > v.dist + currentVost ) {
-                    vertex.dist = v.dist + currentVost;
-                    vertex.prev = v;
-                    priorityQueue.add( new Edge<Type>( vertex, vertex.dist ) );
+        if (start == null) {
+            return;
+        }
+        int vertexCount = vertexList.size();
+        if (distances == null || distances.length < vertexCount) {
+            distances = new double[vertexCount];
+            previous = new int[vertexCount];
+            queue = new IndexedDaryHeap(vertexCount);
+        }
+        Arrays.fill(distances, 0, vertexCount, INFINITY);
+        Arrays.fill(previous, 0, vertexCount, -1);
+        queue.clear();
+
+        distances[start.id] = 0;
+        queue.addOrDecrease(start.id, 0);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            double distance = distances[v];
+            List<Edge<Type>> adj = vertexList.get(v).adj;
+            for (int i = 0; i < adj.size(); i++) {
+                Edge<Type> e = adj.get(i);
+                int w = e.dest.id;
+                double candidate = distance + e.cost;
+                if (candidate < distances[w]) {
+                    distances[w] = candidate;
+                    previous[w] = v;
+                    queue.addOrDecrease(w, candidate);
                 }
             }
         }
+
+        for (int id = 0; id < vertexCount; id++) {
+            Vertex<Type> vertex = vertexList.get(id);
+            vertex.dist = distances[id];
+            vertex.prev = previous[id] < 0 ? null : vertexList.get(previous[id]);
+            vertex.scratch = distances[id] < INFINITY ? 1 : 0;
+        }
     }
 
     /**
@@ -361,6 +438,7 @@ class Vertex<Type> {
     public List<Edge<Type>> adj;    // Adjacent vertices
     public double dist;             // Cost
     Vertex<Type> prev;              // Previous vertex on shortest path
+    int id = -1;                    // Dense id in the graph, -1 if not in a graph
     public int scratch;             // Extra variable used in algorithm
     public boolean wasVisited;
 
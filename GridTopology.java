@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The common part of the topologies whose directions and forward slots are the same for
+ * every cell.<br>
+ * Subclasses give their opposite directions and forward directions as tables and
+ * implement {@link #neighbor(int, int)} with their own offset tables and boundary masks.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public abstract class GridTopology implements Topology {
+
+    protected final int columns;
+
+    protected final int rows;
+
+    /* The direction back from the neighbor in every direction. */
+    private final int[] opposites;
+
+    /* The slot of every direction, -1 for directions owned by the neighbor. */
+    private final int[] slots;
+
+    /* The direction of every slot. */
+    private final int[] forward;
+
+    /**
+     * Creates a topology.
+     *
+     * @param columns The number of cells in a row.
+     * @param rows The number of rows.
+     * @param opposites The direction back from the neighbor, for every direction.
+     * @param forward The directions that lead to a larger id, one per slot.
+     */
+    protected GridTopology(int columns, int rows, int[] opposites, int[] forward) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("Grid dimensions must be positive: " + columns + " x " + rows);
+        }
+        if ((long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many cells: " + columns + " x " + rows);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.opposites = opposites.clone();
+        this.forward = forward.clone();
+        slots = new int[opposites.length];
+        Arrays.fill(slots, -1);
+        for (int slot = 0; slot < forward.length; slot++) {
+            slots[forward[slot]] = slot;
+        }
+    }
+
+    @Override
+    public int size() {
+        return columns * rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int directions() {
+        return opposites.length;
+    }
+
+    @Override
+    public int opposite(int direction) {
+        return opposites[direction];
+    }
+
+    @Override
+    public int slots() {
+        return forward.length;
+    }
+
+    @Override
+    public int slot(int direction) {
+        return slots[direction];
+    }
+
+    @Override
+    public int slotDirection(int slot) {
+        return forward[slot];
+    }
+
+    /**
+     * Returns the Manhattan distance, which is exact for topologies where every move
+     * changes either the column or the row by one.
+     */
+    @Override
+    public int distance(int from, int to) {
+        return Math.abs(from % columns - to % columns) + Math.abs(from / columns - to / columns);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + columns + " x " + rows;
+    }
+
+    /**
+     * Builds a boundary mask for every position along one axis, where the directions in
+     * lowMask are blocked at the first position and those in highMask at the last.
+     */
+    protected static int[] edgeMasks(int length, int lowMask, int highMask) {
+        int[] masks = new int[length];
+        masks[0] |= lowMask;
+        masks[length - 1] |= highMask;
+        return masks;
+    }
+}
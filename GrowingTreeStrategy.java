@@ -0,0 +1,84 @@
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Chooses which active cell the growing tree algorithm grows from next.<br>
+ * A strategy is a weighted mix of picking the newest, a random or the oldest active cell.
+ * Always picking the newest cell gives the long winding passages of the recursive
+ * backtracker, always picking a random cell gives the short dead ends of Prim's algorithm
+ * and always picking the oldest cell gives long straight corridors. Every choice is O(1).
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public final class GrowingTreeStrategy {
+
+    /** Behaves like the recursive backtracker. */
+    public static final GrowingTreeStrategy NEWEST = new GrowingTreeStrategy(1, 0, 0);
+
+    /** Behaves much like Prim's algorithm. */
+    public static final GrowingTreeStrategy RANDOM = new GrowingTreeStrategy(0, 1, 0);
+
+    /** Grows outward from the start in straight corridors. */
+    public static final GrowingTreeStrategy OLDEST = new GrowingTreeStrategy(0, 0, 1);
+
+    /** Grows from the newest or a random cell with equal chance, a mix of both textures. */
+    public static final GrowingTreeStrategy MIXED = new GrowingTreeStrategy(1, 1, 0);
+
+    private final int newestWeight;
+
+    private final int randomWeight;
+
+    private final int oldestWeight;
+
+    private final int totalWeight;
+
+    private GrowingTreeStrategy(int newestWeight, int randomWeight, int oldestWeight) {
+        this.newestWeight = newestWeight;
+        this.randomWeight = randomWeight;
+        this.oldestWeight = oldestWeight;
+        this.totalWeight = newestWeight + randomWeight + oldestWeight;
+    }
+
+    /**
+     * Creates a strategy that picks the newest, a random or the oldest active cell with
+     * probabilities proportional to the given weights.
+     *
+     * @throws IllegalArgumentException if a weight is negative or all weights are zero.
+     */
+    public static GrowingTreeStrategy weighted(int newestWeight, int randomWeight, int oldestWeight) {
+        if (newestWeight < 0 || randomWeight < 0 || oldestWeight < 0
+                || newestWeight + randomWeight + oldestWeight <= 0) {
+            throw new IllegalArgumentException("Weights must be non-negative and not all zero: "
+                    + newestWeight + ", " + randomWeight + ", " + oldestWeight);
+        }
+        return new GrowingTreeStrategy(newestWeight, randomWeight, oldestWeight);
+    }
+
+    /**
+     * Returns the index of the active cell to grow from.
+     * @param size The number of active cells, at least one.
+     * @param random The random number generator of the maze.
+     * @return An index where zero is the oldest and size - 1 the newest active cell.
+     */
+    int select(int size, SplittableRandom random) {
+        int pick = 0;
+        // A single strategy needs no random draw to choose between strategies
+        if (newestWeight != totalWeight && randomWeight != totalWeight && oldestWeight != totalWeight) {
+            pick = random.nextInt(totalWeight);
+        } else if (newestWeight == 0) {
+            pick = randomWeight == 0 ? totalWeight - 1 : newestWeight;
+        }
+        if (pick < newestWeight) {
+            return size - 1;
+        } else if (pick < newestWeight + randomWeight) {
+            return random.nextInt(size);
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "newest:" + newestWeight + " random:" + randomWeight + " oldest:" + oldestWeight;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * <p>
+ * Rows of pointy topped hexagons with six neighbors each.<br>
+ * Odd rows are shifted half a cell to the right, so the neighbors above and below a cell
+ * depend on whether its row is even or odd; both cases have their own offset table and
+ * boundary masks. The forward directions are EAST, SOUTH_EAST and SOUTH_WEST, so a cell
+ * needs three passage bits.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class HexagonalTopology extends GridTopology {
+
+    public static final int EAST = 0;
+
+    public static final int SOUTH_EAST = 1;
+
+    public static final int SOUTH_WEST = 2;
+
+    public static final int WEST = 3;
+
+    public static final int NORTH_WEST = 4;
+
+    public static final int NORTH_EAST = 5;
+
+    /* The change in id for every direction, indexed by row parity. */
+    private final int[][] offsets;
+
+    /* The directions blocked by the left and right edges, by row parity and column. */
+    private final int[][] columnMasks;
+
+    /* The directions blocked by the top and bottom edges, by row. */
+    private final int[] rowMasks;
+
+    /**
+     * Creates rows of hexagons.
+     *
+     * @param columns The number of hexagons in a row.
+     * @param rows The number of rows.
+     */
+    public HexagonalTopology(int columns, int rows) {
+        super(columns, rows,
+                new int[] {WEST, NORTH_WEST, NORTH_EAST, EAST, SOUTH_EAST, SOUTH_WEST},
+                new int[] {EAST, SOUTH_EAST, SOUTH_WEST});
+        offsets = new int[][] {
+            {1, columns, columns - 1, -1, -columns - 1, -columns},
+            {1, columns + 1, columns, -1, -columns, -columns + 1}
+        };
+        int west = 1 << WEST;
+        int east = 1 << EAST;
+        columnMasks = new int[][] {
+            edgeMasks(columns, west | 1 << NORTH_WEST | 1 << SOUTH_WEST, east),
+            edgeMasks(columns, west, east | 1 << NORTH_EAST | 1 << SOUTH_EAST)
+        };
+        rowMasks = edgeMasks(rows, 1 << NORTH_WEST | 1 << NORTH_EAST, 1 << SOUTH_WEST | 1 << SOUTH_EAST);
+    }
+
+    /**
+     * Returns the number of hexagons between the cells, found by converting the shifted rows
+     * to axial coordinates where a diagonal move changes both coordinates at once.
+     */
+    @Override
+    public int distance(int from, int to) {
+        int fromRow = from / columns;
+        int toRow = to / columns;
+        int fromQ = from - fromRow * columns - (fromRow - (fromRow & 1)) / 2;
+        int toQ = to - toRow * columns - (toRow - (toRow & 1)) / 2;
+        int dq = toQ - fromQ;
+        int dr = toRow - fromRow;
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    @Override
+    public int neighbor(int id, int direction) {
+        int row = id / columns;
+        int parity = row & 1;
+        int mask = columnMasks[parity][id - row * columns] | rowMasks[row];
+        return (mask & (1 << direction)) != 0 ? -1 : id + offsets[parity][direction];
+    }
+}
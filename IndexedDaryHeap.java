@@ -0,0 +1,163 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A d-ary min heap of dense vertex ids with <code>double</code> priorities.<br>
+ * Like {@link IndexedMinHeap} every id knows its position, so lowering the priority of a
+ * queued id moves it in place and the heap never holds more entries than there are ids.
+ * Each node has <code>arity</code> children instead of two, which makes the heap shallower:
+ * lowering a priority, the common operation of Dijkstra's algorithm, climbs fewer levels,
+ * and the children compared when removing the minimum sit next to each other in memory.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class IndexedDaryHeap {
+
+    /** The number of children per node that Graph uses. */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+
+    /* The queued ids in heap order. */
+    private final int[] heap;
+
+    /* The position of every id in the heap, or -1 if it is not queued. */
+    private final int[] positions;
+
+    /* The priority of every queued id, kept next to the heap order for cheap comparisons. */
+    private final double[] keys;
+
+    private int size;
+
+    /**
+     * Creates an empty heap with four children per node.
+     * @param capacity The number of ids.
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty heap for the ids from zero up to the capacity.
+     * @param capacity The number of ids.
+     * @param arity The number of children of every node, at least two.
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("A heap node needs at least two children: " + arity);
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Returns true if the id is queued.
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Queues an id that is not queued yet, or lowers its priority if it is.
+     * A priority that is not lower than the queued one is ignored.
+     */
+    public void addOrDecrease(int id, double priority) {
+        int position = positions[id];
+        if (position < 0) {
+            position = size++;
+        } else if (priority >= keys[position]) {
+            return;
+        }
+        siftUp(position, id, priority);
+    }
+
+    /**
+     * Removes and returns the id with the lowest priority.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int first = heap[0];
+        positions[first] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(heap[size], keys[size]);
+        }
+        return first;
+    }
+
+    /**
+     * Removes every queued id, touching only the queued ones.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position, int id, double priority) {
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            if (keys[parent] <= priority) {
+                break;
+            }
+            place(position, heap[parent], keys[parent]);
+            position = parent;
+        }
+        place(position, id, priority);
+    }
+
+    /**
+     * Moves the given entry down from the root to where it belongs.
+     */
+    private void siftDown(int id, double priority) {
+        int position = 0;
+        while (true) {
+            int first = position * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int child = first;
+            double childKey = keys[first];
+            for (int i = first + 1; i < last; i++) {
+                if (keys[i] < childKey) {
+                    child = i;
+                    childKey = keys[i];
+                }
+            }
+            if (priority <= childKey) {
+                break;
+            }
+            place(position, heap[child], childKey);
+            position = child;
+        }
+        place(position, id, priority);
+    }
+
+    private void place(int position, int id, double priority) {
+        heap[position] = id;
+        keys[position] = priority;
+        positions[id] = position;
+    }
+}
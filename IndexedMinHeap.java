@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A binary min heap of packed cell ids with <code>long</code> priorities.<br>
+ * Every id knows its position in the heap, so the priority of an id that is already
+ * queued can be lowered in place instead of queueing it a second time. The heap never
+ * holds more entries than there are ids and adding or removing an id allocates nothing.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class IndexedMinHeap {
+
+    /* The queued ids in heap order. */
+    private final int[] heap;
+
+    /* The position of every id in the heap, or -1 if it is not queued. */
+    private final int[] positions;
+
+    /* The priority of every queued id. */
+    private final long[] priorities;
+
+    private int size;
+
+    /**
+     * Creates an empty heap for the ids from zero up to the capacity.
+     * @param capacity The number of ids.
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the id is queued.
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Returns the priority of a queued id.
+     */
+    public long priority(int id) {
+        return priorities[id];
+    }
+
+    /**
+     * Queues an id that is not queued yet.
+     * @throws IllegalStateException if the id is already queued.
+     */
+    public void add(int id, long priority) {
+        if (positions[id] >= 0) {
+            throw new IllegalStateException("Already queued: " + id);
+        }
+        priorities[id] = priority;
+        heap[size] = id;
+        positions[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the priority of a queued id. A priority that is not lower is ignored.
+     */
+    public void decreasePriority(int id, long priority) {
+        if (priority < priorities[id]) {
+            priorities[id] = priority;
+            siftUp(positions[id]);
+        }
+    }
+
+    /**
+     * Removes and returns the id with the lowest priority.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int first = heap[0];
+        positions[first] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return first;
+    }
+
+    /**
+     * Removes every queued id. Only the queued ids are touched, so this is cheap after a
+     * search that stopped early.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        long priority = priorities[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (priorities[parentId] <= priority) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        long priority = priorities[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && priorities[heap[right]] < priorities[heap[child]]) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (priority <= priorities[childId]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * <p>
+ * A stack of rectangular layers, which makes a three dimensional maze.<br>
+ * Besides the WallGrid directions every cell has a neighbor UP in the layer above and
+ * DOWN in the layer below. The layers are stored one after the other, so row
+ * <code>layer * layerRows + y</code> is row y of the layer. EAST, SOUTH and DOWN are the
+ * forward directions, so a cell needs three passage bits.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class LayeredTopology extends GridTopology {
+
+    public static final int UP = 4;
+
+    public static final int DOWN = 5;
+
+    private final int layerRows;
+
+    /* The change in id for every direction. */
+    private final int[] offsets;
+
+    /* The directions blocked by the left and right edges, by column. */
+    private final int[] columnMasks;
+
+    /* The directions blocked by the edges of a layer and by the top and bottom layer, by row. */
+    private final int[] rowMasks;
+
+    /**
+     * Creates a stack of layers.
+     *
+     * @param columns The number of columns of a layer.
+     * @param layerRows The number of rows of a layer.
+     * @param layers The number of layers.
+     */
+    public LayeredTopology(int columns, int layerRows, int layers) {
+        super(columns, checkedRows(layerRows, layers),
+                new int[] {WallGrid.SOUTH, WallGrid.WEST, WallGrid.NORTH, WallGrid.EAST, DOWN, UP},
+                new int[] {WallGrid.EAST, WallGrid.SOUTH, DOWN});
+        this.layerRows = layerRows;
+        offsets = new int[] {-columns, 1, columns, -1, -columns * layerRows, columns * layerRows};
+        columnMasks = edgeMasks(columns, 1 << WallGrid.WEST, 1 << WallGrid.EAST);
+        int[] layerEdges = edgeMasks(layerRows, 1 << WallGrid.NORTH, 1 << WallGrid.SOUTH);
+        int[] stackEdges = edgeMasks(layers, 1 << UP, 1 << DOWN);
+        rowMasks = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            rowMasks[row] = layerEdges[row % layerRows] | stackEdges[row / layerRows];
+        }
+    }
+
+    public int getLayerRows() {
+        return layerRows;
+    }
+
+    public int getLayers() {
+        return rows / layerRows;
+    }
+
+    /**
+     * Returns the Manhattan distance within a layer plus the number of layers between the
+     * cells, since UP and DOWN skip a whole layer of rows in one move.
+     */
+    @Override
+    public int distance(int from, int to) {
+        int fromRow = from / columns;
+        int toRow = to / columns;
+        return Math.abs(from - fromRow * columns - (to - toRow * columns))
+                + Math.abs(fromRow % layerRows - toRow % layerRows)
+                + Math.abs(fromRow / layerRows - toRow / layerRows);
+    }
+
+    @Override
+    public int neighbor(int id, int direction) {
+        int row = id / columns;
+        int mask = columnMasks[id - row * columns] | rowMasks[row];
+        return (mask & (1 << direction)) != 0 ? -1 : id + offsets[direction];
+    }
+
+    private static int checkedRows(int layerRows, int layers) {
+        if (layerRows < 1 || layers < 1 || (long) layerRows * layers > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid layers: " + layers + " of " + layerRows + " rows");
+        }
+        return layerRows * layers;
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A map with a fixed capacity that forgets the least recently used entry when it is full.<br>
+ * Every method is synchronized so one cache can be shared by several threads. It is meant for
+ * small caches of expensive results, such as generated mazes.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Creates an empty cache.
+     * @param capacity The most entries kept, at least one.
+     */
+    public LruCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        // An access ordered map keeps the least recently used entry first
+        entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 2807394470285327261L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the value stored for the key and marks it as recently used.
+     * @return The value or null if the key is not cached.
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a value, forgetting the least recently used entry if the cache is full.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
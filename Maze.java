@@ -1,9 +1,15 @@
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Observable;
-import java.util.Random;
-import java.util.Stack;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * <h1>TCSS 342 ­ Data Structures Assignment 5 ­- Maze Generator.</h1>
@@ -35,16 +41,48 @@ public class Maze extends Observable {
 
     public static final String COMMAND_FINISH_LOCATION = "COMMAND_MAZE_FINISH";
 
-    private static final Random RANDOM = new Random();
+    /* Mixed into the seed for the costs of the passages, so they have a random stream of their own. */
+    private static final long TERRAIN_SALT = 0x7E44A1B5C3D2F10BL;
 
     int width;
     int depth;
     boolean debug;
-    Graph<Cell> graph;
+    /* The passages of the maze. This is the source of truth for the layout. */
+    WallGrid grid;
+    /* A Graph view of the grid that is only built when somebody asks for it. */
+    private Graph<Cell> graph;
+    /* The packed ids of the cells on the path from mazeStart to mazeFinish, when known. */
+    int[] solutionPath;
+    /* The shortest path from mazeStart to mazeFinish as a graph, built on demand from solutionPath. */
+    private Graph<Cell> solution;
+    /* Breadth first search over the grid, created with the first solve and reused after that. */
+    private MazeSolver solver;
+    /* True while the distances in solver belong to the current maze. */
+    private boolean solverCurrent;
+    /* A* over the grid, created with the first call to solveAStar(). */
+    private AStarSolver aStar;
+    /* Breadth first search from both ends, created with the first call to solveBidirectional(). */
+    private BidirectionalSolver bidirectional;
+    /* Distances between any two cells, built on demand and thrown away when the maze changes. */
+    private MazePathIndex pathIndex;
+    /* The costs of the passages in weighted mode, null when every passage costs one. */
+    private Terrain terrain;
+    /* The highest cost a passage is given in weighted mode. */
+    private int highestCost = 1;
+    /* Dial's algorithm over the terrain, created with the first weighted solve. */
+    private DialSolver dialSolver;
+    /* True while the costs in dialSolver belong to the current maze and terrain. */
+    private boolean dialSolverCurrent;
     int framesPerSecond;
     Cell mazeStart;
     Cell mazeFinish;
     boolean isSolved = false;
+    /* When true nothing is printed to the standard output and no observers are notified. */
+    boolean quiet = false;
+    /* Every generation starts over from this seed, so the same seed carves the same maze. */
+    private long seed;
+    /* The random number generator of the current generation. */
+    SplittableRandom random;
 
     /**
      * <p>
@@ -61,6 +99,21 @@ public class Maze extends Observable {
     public Maze(int rows, int columns, boolean debug) {
         this(rows, columns, debug, 0, 0, 0, 0);
     }
+
+    /**
+     * <p>
+     * Creates a 2D maze of size m by n with a fixed seed. The start and finish locations
+     * and every maze generated are determined by the size, the algorithm and the seed.
+     *
+     * @param rows The height of the desired maze.
+     * @param columns The width of the desired maze
+     * @param debug To debug or not to debug.
+     * @param seed The seed of the random number generator.
+     */
+    public Maze(int rows, int columns, boolean debug, long seed) {
+        this(rows, columns, debug, 0, 0, 0, 0, seed);
+    }
+
     /**
      * <p>
      * Creates a 2D maze of size m by n. Where m represents the given depth and 
@@ -79,6 +132,24 @@ public class Maze extends Observable {
      * @param finishY desired finish location y coordinate
      */
     public Maze(int rows, int columns, boolean debug, int startX, int startY, int finishX, int finishY) {
+        this(rows, columns, debug, startX, startY, finishX, finishY, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * <p>
+     * Creates a 2D maze with the given start and finish locations and a fixed seed.<br>
+     * The same size, start, finish, seed and algorithm always produce the same maze.
+     *
+     * @param rows The height of the desired maze.
+     * @param columns The width of the desired maze
+     * @param debug To debug or not to debug.
+     * @param startX desired starting location x coordinate.
+     * @param startY desired starting location y coordinate
+     * @param finishX desired finish location x coordinate
+     * @param finishY desired finish location y coordinate
+     * @param seed The seed of the random number generator.
+     */
+    public Maze(int rows, int columns, boolean debug, int startX, int startY, int finishX, int finishY, long seed) {
         if (rows < 4) {
             rows = 4;
         }
@@ -88,15 +159,70 @@ public class Maze extends Observable {
         this.depth = rows;
         this.width = columns;
         this.debug = debug;
-        graph = new Graph<Cell>();
+        grid = new WallGrid(columns, rows);
         mazeStart = new Cell(startX, startY);
         mazeFinish = new Cell(finishX, finishY);
+        setSeed(seed);
         if (mazeStart.equals(mazeFinish)) {
-            mazeStart = new Cell(RANDOM.nextInt(columns), 0);
-            mazeFinish = new Cell(RANDOM.nextInt(columns), rows-1);
+            SplittableRandom placement = random.split();
+            mazeStart = new Cell(placement.nextInt(columns), 0);
+            mazeFinish = new Cell(placement.nextInt(columns), rows-1);
         }
     }
 
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * <p>Turns quiet mode on or off. A quiet maze prints nothing and notifies no observers,
+     * which is what generating many mazes in the background wants.
+     * @param quiet True to stay quiet.
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * <p>
+     * Creates a maze of any shape with a fixed seed. The start is a random cell of the first
+     * row and the finish a random cell of the last row.<br>
+     * Prim's, the recursive backtracker, growing tree, depth first, Kruskal's, Wilson's and
+     * hunt and kill work on every topology. The algorithms that are defined by rows and
+     * columns, such as recursive division, need a rectangle.
+     *
+     * @param topology The cells of the maze and their neighbors.
+     * @param debug To debug or not to debug.
+     * @param seed The seed of the random number generator.
+     */
+    public Maze(Topology topology, boolean debug, long seed) {
+        this.depth = topology.getRows();
+        this.width = topology.getColumns();
+        this.debug = debug;
+        grid = new WallGrid(topology);
+        setSeed(seed);
+        SplittableRandom placement = random.split();
+        mazeStart = new Cell(placement.nextInt(width), 0);
+        mazeFinish = new Cell(placement.nextInt(width), depth - 1);
+    }
+
+    public Topology getTopology() {
+        return grid.getTopology();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * <p>Sets the seed that the next generation starts from.
+     * @param seed The seed of the random number generator.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        random = new SplittableRandom(seed);
+    }
+
     /**
      * <p>
      * Generate a maze using Prims Algorithm randomized from Wikipedia.
@@ -118,219 +244,1032 @@ public class Maze extends Observable {
      * </ol>
      */
     public void createMazePrims() {
-        graph.clearAll();
-        graph = new Graph<Cell>();
-        // Initial starting cell
-        ArrayList<Cell> walls = new ArrayList<Cell>();;    
+        resetMaze();
+        carvePrims(false);
+
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using Prim's algorithm");
+    }
+
+    /**
+     * <p>Prim's algorithm over packed cell ids.<br>
+     * The frontier holds every cell that borders the maze but is not part of it yet. Cells
+     * join the frontier at most once, and a random member is removed in constant time, so
+     * the whole maze is carved in time proportional to the number of cells.
+     * @param horizontalBias When true a frontier cell prefers to join the maze through its
+     *          east or west neighbor.
+     */
+    void carvePrims(boolean horizontalBias) {
+        BitSet inMaze = new BitSet(grid.size());
+        CellFrontier frontier = new CellFrontier(grid.size());
+        DirectionArray parents = new DirectionArray(grid.size(), grid.directions());
+        int[] directions = new int[grid.directions()];
+
+        // 1. Choose any starting vertex and add all of its neighbors to the frontier.
+        int start = grid.id(mazeStart);
+        inMaze.set(start);
+        addToFrontier(start, inMaze, frontier);
+
+        // 3. Repeat step 2 until the frontier is empty.
+        while (!frontier.isEmpty()) {
+            // 2. Grab a random cell not yet in the maze and connect it to a neighbor that is.
+            int cell = frontier.removeAt(random.nextInt(frontier.size()));
+            int count = 0;
+            if (horizontalBias) {
+                count = collectDirectionsInMaze(cell, inMaze, directions, true);
+            }
+            if (count == 0) {
+                count = collectDirectionsInMaze(cell, inMaze, directions, false);
+            }
+            int direction = directions[random.nextInt(count)];
+            grid.carve(cell, direction);
+            parents.set(cell, direction);
+            inMaze.set(cell);
+            addToFrontier(cell, inMaze, frontier);
+
+            notifyCell(grid.neighbor(cell, direction));
+            notifyCell(cell);
+            if (debug) {
+                display();
+            }
+        }
+        solutionPath = treePath(parents, start, start, grid.id(mazeFinish));
+    }
+
+    /**
+     * <p>Adds every neighbor of the cell that is not in the maze to the frontier.
+     */
+    private void addToFrontier(int cell, BitSet inMaze, CellFrontier frontier) {
+        for (int direction = 0; direction < grid.directions(); direction++) {
+            int neighbor = grid.neighbor(cell, direction);
+            if (neighbor >= 0 && !inMaze.get(neighbor)) {
+                frontier.add(neighbor);
+            }
+        }
+    }
+
+    /**
+     * <p>Collects the directions of the cell whose neighbor is already in the maze.
+     * @param horizontalOnly When true only neighbors in the same row are considered.
+     * @return the number of directions written to the array.
+     */
+    private int collectDirectionsInMaze(int cell, BitSet inMaze, int[] directions, boolean horizontalOnly) {
+        int count = 0;
+        int row = grid.y(cell);
+        for (int direction = 0; direction < grid.directions(); direction++) {
+            int neighbor = grid.neighbor(cell, direction);
+            if (neighbor >= 0 && inMaze.get(neighbor) && (!horizontalOnly || grid.y(neighbor) == row)) {
+                directions[count++] = direction;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * <p>Generates a maze with a randomized depth first search that records the path
+     * from mazeStart to mazeFinish while it carves.
+     */
+    public void createMazeDepthFirstRecursive() {
+        resetMaze();
+        carveDepthFirst();
+
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using a depth first recursive algorithm");
+    }
+
+    /**
+     * <p>Randomized depth first search with an explicit stack.<br>
+     * Instead of one Java stack frame per cell, every cell remembers the direction of the
+     * cell it was carved from. When a cell has no unvisited neighbors left the search
+     * follows that direction back, which is exactly where the recursive version would
+     * return to. The parent chain from mazeFinish back to mazeStart is the solution.
+     */
+    void carveDepthFirst() {
+        BitSet visited = new BitSet(grid.size());
+        DirectionArray parents = new DirectionArray(grid.size(), grid.directions());
+        int[] directions = new int[grid.directions()];
+        int start = grid.id(mazeStart);
+        int finish = grid.id(mazeFinish);
 
         // 1. Choose any starting vertex.
-        Cell start = mazeStart;
+        int current = start;
+        visited.set(current);
+        notifyCell(current);
+        while (current >= 0) {
+            // If the current cell has any neighbors which have not been visited
+            // Choose randomly one of the unvisited neighbors
+            int count = 0;
+            for (int direction = 0; direction < grid.directions(); direction++) {
+                int neighbor = grid.neighbor(current, direction);
+                if (neighbor >= 0 && !visited.get(neighbor)) {
+                    directions[count++] = direction;
+                }
+            }
+            if (count > 0) {
+                int direction = directions[random.nextInt(count)];
+                int next = grid.neighbor(current, direction);
+                grid.carve(current, direction);
+                parents.set(next, grid.opposite(direction));
+                notifyCell(current);
+                if (debug) {
+                    display();
+                }
+                // Descend into the neighbor
+                current = next;
+                visited.set(current);
+                notifyCell(current);
+            } else if (current == start) {
+                current = -1;
+            } else {
+                // Return to the cell we were carved from
+                current = grid.neighbor(current, parents.get(current));
+            }
+        }
+        solutionPath = treePath(parents, start, start, finish);
+        isSolved = true;
+    }
 
-        // Add all of its neighbors to the wall list and choose one to be in the maze
-        walls.addAll(getNeighbors(start));
-        Cell randomNeighbor = walls.remove(RANDOM.nextInt(walls.size()));
-        graph.addEdge(start, randomNeighbor);
-        if (debug) {
-            display();
+    /**
+     * <p>Reads the path between two cells off the tree a generator carved, so the maze
+     * does not have to be searched after it is generated.<br>
+     * Every carved cell remembers the direction of the cell it was carved from. Both ends
+     * climb towards the root until they meet, which is where the path turns.
+     * @param parents The direction of the parent of every cell except the root.
+     * @param root The id of the cell the tree grew from.
+     * @param start The id of the cell the path should start at.
+     * @param finish The id of the cell the path should end at.
+     * @return the ids of the cells on the path in order from start to finish.
+     */
+    private int[] treePath(DirectionArray parents, int root, int start, int finish) {
+        int startDepth = treeDepth(parents, root, start);
+        int finishDepth = treeDepth(parents, root, finish);
+        int a = start;
+        int b = finish;
+        for (int depth = startDepth; depth > finishDepth; depth--) {
+            a = grid.neighbor(a, parents.get(a));
+        }
+        for (int depth = finishDepth; depth > startDepth; depth--) {
+            b = grid.neighbor(b, parents.get(b));
+        }
+        while (a != b) {
+            a = grid.neighbor(a, parents.get(a));
+            b = grid.neighbor(b, parents.get(b));
         }
+        int turnDepth = treeDepth(parents, root, a);
+        int up = startDepth - turnDepth;
+        int[] path = new int[up + finishDepth - turnDepth + 1];
+        int id = start;
+        for (int i = 0; i < up; i++) {
+            path[i] = id;
+            id = grid.neighbor(id, parents.get(id));
+        }
+        id = finish;
+        for (int i = path.length - 1; i >= up; i--) {
+            path[i] = id;
+            if (i > up) {
+                id = grid.neighbor(id, parents.get(id));
+            }
+        }
+        return path;
+    }
 
-        // Notify to our maze that we have our first possible path
-        setChanged();
-        notifyObservers(graph.getVertex(start));
+    /**
+     * <p>Returns the number of passages between a cell and the root of the tree.
+     */
+    private int treeDepth(DirectionArray parents, int root, int id) {
+        int depth = 0;
+        for (; id != root; id = grid.neighbor(id, parents.get(id))) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * <p>
+     * Generate a maze using randomized Kruskal's algorithm from Wikipedia.
+     * </p>
+     * <ol>
+     * <li>Create a list of all walls and a set for each cell, each containing just that one cell.
+     * <li>For each wall, in some random order:
+     * <ul>
+     * <li>If the cells divided by this wall belong to distinct sets:
+     * <li>Remove the current wall.
+     * <li>Join the sets of the formerly divided cells.
+     * </ul>
+     * </ol>
+     */
+    public void createMazeKruskal() {
+        resetMaze();
+        carveKruskal();
 
-        // 3. Repeat step 2 until all vertices are connected.
-        // While there are still walls in the walls list.
-        while (walls.size() > 0) {
+        solve();
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using Kruskal's algorithm");
+    }
 
-            // 2. Choose the random edge from any previously-chosen vertex to an unchosen vertex.
-            // Choose one of its neighbors at random to be in the maze
-            // Now add all of the neighbors to the possible walls list which are not in G
-            for (Vertex<Cell> v: graph.getVertexes()) {
-                List<Cell> neighborsOfV = getNeighborsNotInGraph(v.value, graph);
-                for(Cell c : neighborsOfV) {
-                    if (!walls.contains(c)) {
-                        walls.add(c);
-                    }
+    /**
+     * <p>Kruskal's algorithm over packed wall ids.<br>
+     * Every inner wall is stored as <code>cell * slots + slot</code>, the passage bit that
+     * would open it; on a rectangle that is <code>cell * 2</code> for its east wall and
+     * <code>cell * 2 + 1</code> for its south wall. The walls are shuffled in place and the
+     * cell sets live in a DisjointSet, so memory is a fixed number of ints per cell and the
+     * running time is near linear.
+     */
+    void carveKruskal() {
+        int slots = grid.slots();
+        int[] walls = new int[countInnerWalls()];
+        int count = 0;
+        for (int id = 0; id < grid.size(); id++) {
+            for (int slot = 0; slot < slots; slot++) {
+                if (grid.neighbor(id, grid.getTopology().slotDirection(slot)) >= 0) {
+                    walls[count++] = id * slots + slot;
                 }
             }
+        }
 
-            // Grab a random neighbor not yet in G
-            randomNeighbor = walls.remove(RANDOM.nextInt(walls.size()));
+        // Shuffle the walls with Fisher-Yates
+        for (int i = walls.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = walls[i];
+            walls[i] = walls[j];
+            walls[j] = swap;
+        }
 
-            // Find an adjacent neighbor who is in G
-            start = getRandomNeighborInGraph(randomNeighbor, graph);
+        DisjointSet sets = new DisjointSet(grid.size());
+        for (int i = 0; i < walls.length && sets.count() > 1; i++) {
+            int cell = walls[i] / slots;
+            int direction = grid.getTopology().slotDirection(walls[i] - cell * slots);
+            int neighbor = grid.neighbor(cell, direction);
+            if (sets.union(cell, neighbor)) {
+                grid.carve(cell, direction);
+                notifyCell(cell);
+                notifyCell(neighbor);
+                if (debug) {
+                    display();
+                }
+            }
+        }
+    }
 
-            graph.addEdge(start, randomNeighbor);
-            setChanged();
-            notifyObservers(graph.getVertex(start));
-            setChanged();
-            notifyObservers(graph.getVertex(randomNeighbor));
+    /**
+     * <p>Returns the number of walls that separate two cells of the grid.
+     */
+    private int countInnerWalls() {
+        if (grid.isRectangular()) {
+            return (width - 1) * depth + width * (depth - 1);
+        }
+        int walls = 0;
+        for (int id = 0; id < grid.size(); id++) {
+            for (int slot = 0; slot < grid.slots(); slot++) {
+                if (grid.neighbor(id, grid.getTopology().slotDirection(slot)) >= 0) {
+                    walls++;
+                }
+            }
+        }
+        return walls;
+    }
+
+    /**
+     * <p>
+     * Generate a maze using Wilson's algorithm from Wikipedia.
+     * </p>
+     * <ol>
+     * <li>Choose any vertex at random and add it to the UST.
+     * <li>Select any vertex that is not already in the UST and perform a loop-erased
+     * random walk until you encounter a vertex that is in the UST.
+     * <li>Add the vertices and edges touched in the random walk to the UST.
+     * <li>Repeat 2 and 3 until all vertices have been added to the UST.
+     * </ol>
+     * Every spanning tree is equally likely, so the maze has none of the biases of the
+     * other generators.
+     */
+    public void createMazeWilson() {
+        resetMaze();
+        carveWilson();
+
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using Wilson's algorithm");
+    }
+
+    /**
+     * <p>Wilson's algorithm over packed cell ids.<br>
+     * The walk only remembers the direction it last left every cell in a byte array.
+     * Overwriting that direction when the walk comes back to a cell erases the loop, so
+     * following the directions from the first cell of the walk retraces the loop-erased path.
+     * Cells in the tree are tracked in a BitSet and nothing is allocated during a walk.
+     */
+    void carveWilson() {
+        BitSet inTree = new BitSet(grid.size());
+        byte[] walk = new byte[grid.size()];
+        DirectionArray parents = new DirectionArray(grid.size(), grid.directions());
+        int[] directions = new int[grid.directions()];
+
+        // 1. The tree starts out as the start of the maze
+        int root = grid.id(mazeStart);
+        inTree.set(root);
+        int origin = 0;
+        while ((origin = inTree.nextClearBit(origin)) < grid.size()) {
+            // 2. Walk randomly from a cell outside of the tree until the tree is hit
+            int cell = origin;
+            while (!inTree.get(cell)) {
+                int count = 0;
+                for (int direction = 0; direction < grid.directions(); direction++) {
+                    if (grid.neighbor(cell, direction) >= 0) {
+                        directions[count++] = direction;
+                    }
+                }
+                int direction = directions[random.nextInt(count)];
+                walk[cell] = (byte) direction;
+                cell = grid.neighbor(cell, direction);
+            }
+
+            // 3. Follow the loop-erased walk again and add it to the tree
+            cell = origin;
+            while (!inTree.get(cell)) {
+                int direction = walk[cell];
+                grid.carve(cell, direction);
+                parents.set(cell, direction);
+                inTree.set(cell);
+                notifyCell(cell);
+                cell = grid.neighbor(cell, direction);
+                notifyCell(cell);
+            }
             if (debug) {
                 display();
             }
         }
+        solutionPath = treePath(parents, root, root, grid.id(mazeFinish));
+    }
+
+    /**
+     * <p>
+     * Generate a maze using the recursive division method from Wikipedia.
+     * </p>
+     * <ol>
+     * <li>Begin with the maze's space with no walls, call this a chamber.
+     * <li>Divide the chamber with a randomly positioned wall that has a single gap in it.
+     * <li>Repeat the process on the two sub-chambers until every chamber is a single
+     * cell wide or deep.
+     * </ol>
+     * The sub-chambers are divided in parallel on the common ForkJoinPool.
+     */
+    public void createMazeRecursiveDivision() {
+        createMazeRecursiveDivision(ForkJoinPool.commonPool());
+    }
 
-        graph.dijkstra(graph.getVertex(mazeStart).value);
-        System.out.println("Finished creating maze using Prim's algorithm");
-        graph.generateSolutionGraph(mazeFinish);
-        display(true);
+    /**
+     * <p>Generates a maze using the recursive division method with the sub-chambers
+     * divided in parallel on the given pool.
+     * @param pool The pool that runs the division tasks.
+     */
+    public void createMazeRecursiveDivision(ForkJoinPool pool) {
+        resetMaze();
+        carveRecursiveDivision(pool);
+        // The workers can not talk to the observers, so announce the finished cells in order
+        if (isObserved()) {
+            for (int id = 0; id < grid.size(); id++) {
+                notifyCell(id);
+            }
+        }
+        if (debug) {
+            display();
+        }
+
+        solve();
         notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using the recursive division method");
     }
 
+    /**
+     * <p>Opens every inner wall and divides the whole grid as one chamber on the given pool.
+     */
+    void carveRecursiveDivision(ForkJoinPool pool) {
+        requireRectangular("Recursive division");
+        grid.openAll();
+        pool.invoke(new RecursiveDivisionTask(grid, 0, 0, width, depth, random.split()));
+    }
 
-    public void createMazeDepthFirstRecursive() {
-        graph.clearAll();
-        graph = new Graph<Cell>();
-        graph.solution = new Graph<Cell>(true);
-        // Start with a list of all cells that belong in the maze
-        ArrayList<Cell> cells = new ArrayList<Cell>();
-        for (int row = 0; row <= depth; row++) {
-            for (int column = 0; column <= width; column++) {
-                cells.add(new Cell(column, row));
+    /**
+     * <p>
+     * Generate a maze using the binary tree algorithm.
+     * </p>
+     * Every cell opens a passage either east or south at random. The rows are independent
+     * so they are carved in parallel.
+     */
+    public void createMazeBinaryTree() {
+        createMazeByRows(RowMazeGenerator.BINARY_TREE, "Finished creating maze using the binary tree algorithm");
+    }
+
+    /**
+     * <p>
+     * Generate a maze using the sidewinder algorithm.
+     * </p>
+     * Every row is split into runs of cells joined east and each run opens a single passage
+     * south. The rows are independent so they are carved in parallel.
+     */
+    public void createMazeSidewinder() {
+        createMazeByRows(RowMazeGenerator.SIDEWINDER, "Finished creating maze using the sidewinder algorithm");
+    }
+
+    /**
+     * <p>Generates, solves and announces a maze carved by one of the row generators.
+     */
+    private void createMazeByRows(RowMazeGenerator generator, String message) {
+        resetMaze();
+        generator.carve(grid, random);
+        if (isObserved()) {
+            for (int id = 0; id < grid.size(); id++) {
+                notifyCell(id);
             }
         }
+        if (debug) {
+            display();
+        }
 
-        // 1. Choose any starting vertex.
-        Cell current = cells.get(cells.indexOf(mazeStart));
+        solve();
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished(message);
+    }
 
-        // Add all of its neighbors to the wall list and choose one to be in the maze
-        recursiveDepthFirst(current, cells);
+    /**
+     * <p>Generates one large maze by cutting the grid into tiles that are carved in parallel
+     * on the common ForkJoinPool and then stitched together.
+     * @param tileSize The width and depth of a tile, at least 4.
+     * @param algorithm The algorithm used to carve every tile.
+     */
+    public void createMazeTiled(int tileSize, MazeAlgorithm algorithm) {
+        createMazeTiled(tileSize, algorithm, ForkJoinPool.commonPool());
+    }
 
-        System.out.println("Finished creating maze using a depth first recursive algorithm");
-        display(true);
+    /**
+     * <p>Generates one large maze by cutting the grid into tiles that are carved in parallel
+     * and then stitched together.
+     * @param tileSize The width and depth of a tile, at least 4.
+     * @param algorithm The algorithm used to carve every tile.
+     * @param executor Runs the tiles.
+     */
+    public void createMazeTiled(int tileSize, MazeAlgorithm algorithm, ExecutorService executor) {
+        resetMaze();
+        carveTiled(tileSize, algorithm, executor);
+        if (isObserved()) {
+            for (int id = 0; id < grid.size(); id++) {
+                notifyCell(id);
+            }
+        }
+        if (debug) {
+            display();
+        }
 
-        graph.dijkstra(graph.getVertex(mazeStart).value);
-        graph.generateSolutionGraph(mazeFinish);
+        solve();
         notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using tiles of " + algorithm);
     }
 
-    public void recursiveDepthFirst(Cell start, ArrayList<Cell> cells) {
-        List<Cell> neighbors = new ArrayList<Cell>();
-        Cell vStart = null;
-        if (cells.contains(start)) {
-            vStart = cells.get(cells.indexOf(start));
-            setChanged();
-            notifyObservers(graph.getVertex(vStart));
-        } else {return;}
-
-        vStart.setWasVisited(true);
-        neighbors = getNeighbors(vStart);
-        // If the current cell has any neighbors which have not been visited
-        // Choose randomly one of the unvisited neighbors
-        Cell randomNeighbor = null;
-
-        while (!neighbors.isEmpty()) {
-            randomNeighbor = cells.get(cells.indexOf(neighbors.remove(RANDOM.nextInt(neighbors.size()))));
-            if (!randomNeighbor.wasVisisted()) {
-                if (!isSolved) {
-                    graph.solution.addEdge(start, randomNeighbor);
-                }
-                if (randomNeighbor.equals(mazeFinish)) {
-                    isSolved = true;
-                }
-                graph.addEdge(vStart, randomNeighbor);
-                setChanged();
-                notifyObservers(graph.getVertex(vStart));
-                if (debug) {
-                    display();
-                }
-                recursiveDepthFirst(randomNeighbor, cells);
+    /**
+     * <p>Tiled generation.<br>
+     * The grid is cut into tiles of tileSize by tileSize cells; the last tile of a row or column
+     * also takes the cells that are left over. Every tile is carved as a maze of its own by a
+     * worker and copied into the shared grid. Each tile is then a spanning tree of its cells,
+     * so joining the tiles with Kruskal's algorithm over the tiles, opening one random wall on
+     * the border of every pair of tiles it unites, leaves a single spanning tree.
+     * @param tileSize The width and depth of a tile, at least 4.
+     * @param algorithm The algorithm used to carve every tile.
+     * @param executor Runs the tiles.
+     */
+    void carveTiled(int tileSize, MazeAlgorithm algorithm, ExecutorService executor) {
+        requireRectangular("Tiled generation");
+        if (tileSize < 4) {
+            throw new IllegalArgumentException("Tiles must be at least 4 cells wide: " + tileSize);
+        }
+        final int tilesAcross = Math.max(1, width / tileSize);
+        final int tilesDown = Math.max(1, depth / tileSize);
+
+        // 1. Carve every tile on its own
+        List<Callable<Void>> tiles = new ArrayList<Callable<Void>>(tilesAcross * tilesDown);
+        for (int tileY = 0; tileY < tilesDown; tileY++) {
+            for (int tileX = 0; tileX < tilesAcross; tileX++) {
+                final int left = tileLeft(tileX, tileSize);
+                final int top = tileTop(tileY, tileSize);
+                final int tileWidth = tileLeft(tileX + 1, tileSize, tilesAcross) - left;
+                final int tileDepth = tileTop(tileY + 1, tileSize, tilesDown) - top;
+                // Seeds are drawn here in tile order so the maze does not depend on the workers
+                final long tileSeed = random.nextLong();
+                tiles.add(() -> {
+                    Maze tile = new Maze(tileDepth, tileWidth, false, tileSeed);
+                    tile.setQuiet(true);
+                    algorithm.carve(tile);
+                    grid.copyFrom(tile.grid, left, top);
+                    return null;
+                });
             }
         }
-
-        if (!isSolved) {
-            Vertex<Cell> source = graph.solution.getVertex(start);
-            Vertex<Cell> neighbor = graph.solution.getVertex(randomNeighbor);
-            if (source.adj.size() > 0) {
-                Edge<Cell> sourceEdge = source.adj.remove(source.adj.size()-1);
+        try {
+            for (Future<Void> tile : executor.invokeAll(tiles)) {
+                tile.get();
             }
-            if(neighbor.adj.size() > 0){
-                Edge<Cell> destEdge =  neighbor.adj.remove(neighbor.adj.size()-1);
-                graph.solution.addEdge(destEdge.source.value, destEdge.dest.value);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while carving tiles", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to carve a tile", e.getCause());
+        }
+
+        // 2. Stitch the tiles together over their borders
+        int[] borders = new int[2 * tilesAcross * tilesDown];
+        int count = 0;
+        for (int tile = 0; tile < tilesAcross * tilesDown; tile++) {
+            if (tile % tilesAcross < tilesAcross - 1) {
+                borders[count++] = tile * 2;
             }
-            if (source.adj.size() == 0) {
-                graph.solution.vertexMap.remove(source.value);
+            if (tile / tilesAcross < tilesDown - 1) {
+                borders[count++] = tile * 2 + 1;
             }
-            if(neighbor.adj.size() == 0){
-                graph.solution.vertexMap.remove(neighbor.value);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = borders[i];
+            borders[i] = borders[j];
+            borders[j] = swap;
+        }
+        DisjointSet sets = new DisjointSet(tilesAcross * tilesDown);
+        for (int i = 0; i < count; i++) {
+            int tile = borders[i] >>> 1;
+            int tileX = tile % tilesAcross;
+            int tileY = tile / tilesAcross;
+            int left = tileLeft(tileX, tileSize);
+            int top = tileTop(tileY, tileSize);
+            int right = tileLeft(tileX + 1, tileSize, tilesAcross);
+            int bottom = tileTop(tileY + 1, tileSize, tilesDown);
+            if ((borders[i] & 1) == 0) {
+                if (sets.union(tile, tile + 1)) {
+                    int row = top + random.nextInt(bottom - top);
+                    grid.carve(grid.id(right - 1, row), WallGrid.EAST);
+                }
+            } else if (sets.union(tile, tile + tilesAcross)) {
+                int column = left + random.nextInt(right - left);
+                grid.carve(grid.id(column, bottom - 1), WallGrid.SOUTH);
             }
         }
     }
 
+    /**
+     * <p>Returns the first column of the tile in the given column of tiles.
+     */
+    private int tileLeft(int tileX, int tileSize) {
+        return tileX * tileSize;
+    }
+
+    /**
+     * <p>Returns the first column of a tile, where the column after the last tile is the width.
+     */
+    private int tileLeft(int tileX, int tileSize, int tilesAcross) {
+        return tileX == tilesAcross ? width : tileX * tileSize;
+    }
+
+    /**
+     * <p>Returns the first row of the tile in the given row of tiles.
+     */
+    private int tileTop(int tileY, int tileSize) {
+        return tileY * tileSize;
+    }
+
+    /**
+     * <p>Returns the first row of a tile, where the row after the last tile is the depth.
+     */
+    private int tileTop(int tileY, int tileSize, int tilesDown) {
+        return tileY == tilesDown ? depth : tileY * tileSize;
+    }
+
     /**
      * <p>Generates a maze using the recursive backtracker algorithm
      */
     public void createMazeRecursiveBacktracker() {
-        graph.clearAll();
-        graph = new Graph<Cell>();
-        // Initial starting cell
-        ArrayList<Cell> cells = new ArrayList<Cell>();
-        List<Cell> currentNeighbors;    
-        Stack<Cell> stack = new Stack<Cell>();
-        Stack<Cell> solutionStack = new Stack<Cell>();
-
-        // Start with a list of all cells that belong in the maze
-        for (int row = 0; row <= depth; row++) {
-            for (int column = 0; column <= width; column++) {
-                cells.add(new Cell(column, row));
-            }
-        }
-
-        // Make the initial cell the current cell and mark it as visited
-        int unvisitedCells = cells.size();
-        Cell start = new Cell(cells.get(cells.indexOf(mazeStart)).getX(), cells.get(cells.indexOf(mazeStart)).getY());
-
-        start.setWasVisited(true);
-        unvisitedCells--;
-        stack.push(start);
-        solutionStack.push(start);
-        //While there are unvisited cells
-        while(unvisitedCells > 0 && start != null) {
-            currentNeighbors = getNeighbors(start);
-            // If the current cell has any neighbors which have not been visited
-            // Choose randomly one of the unvisited neighbors
-            Cell randomNeighbor = null;
-            if (!currentNeighbors.isEmpty()) { 
-                for(Cell c: cells) {
-                    if (currentNeighbors.contains(c) && c.wasVisisted()) {
-                        currentNeighbors.remove(c);
-                    }
+        resetMaze();
+        carveRecursiveBacktracker();
+
+        // Maze is complete, time to let everyone know!
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using a recursive backtracking algorithm");
+    }
+
+    /**
+     * <p>The recursive backtracker is the growing tree algorithm that always grows from the
+     * newest active cell, which is the top of the backtracking stack.
+     */
+    void carveRecursiveBacktracker() {
+        carveGrowingTree(GrowingTreeStrategy.NEWEST);
+    }
+
+    /**
+     * <p>
+     * Generate a maze using the growing tree algorithm.
+     * </p>
+     * The strategy decides which active cell the maze grows from next, anywhere between the
+     * recursive backtracker (newest) and Prim's algorithm (random).
+     * @param strategy The cell selection strategy.
+     */
+    public void createMazeGrowingTree(GrowingTreeStrategy strategy) {
+        Objects.requireNonNull(strategy, "strategy");
+        resetMaze();
+        carveGrowingTree(strategy);
+
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using the growing tree algorithm (" + strategy + ")");
+    }
+
+    /**
+     * <p>The growing tree algorithm over packed cell ids.<br>
+     * Active cells are cells in the maze that may still have unvisited neighbors. Each step
+     * selects an active cell and carves into one of its unvisited neighbors, which becomes
+     * active, or retires the cell when it has none. Selecting, adding and retiring are all
+     * O(1), so the maze is carved in time proportional to the number of cells whatever the
+     * strategy.
+     * @param strategy The cell selection strategy.
+     */
+    void carveGrowingTree(GrowingTreeStrategy strategy) {
+        BitSet visited = new BitSet(grid.size());
+        ActiveCells active = new ActiveCells(64);
+        DirectionArray parents = new DirectionArray(grid.size(), grid.directions());
+        int[] directions = new int[grid.directions()];
+
+        int start = grid.id(mazeStart);
+        visited.set(start);
+        active.add(start);
+
+        while (!active.isEmpty()) {
+            int index = strategy.select(active.size(), random);
+            int current = active.get(index);
+            int count = 0;
+            for (int direction = 0; direction < grid.directions(); direction++) {
+                int neighbor = grid.neighbor(current, direction);
+                if (neighbor >= 0 && !visited.get(neighbor)) {
+                    directions[count++] = direction;
                 }
             }
-            //Push the current cell to the stack
-            //          Remove the wall between the current cell and the chosen cell
-            //          Make the chosen cell the current cell and mark it as visited
-            if (!currentNeighbors.isEmpty()) {
-                randomNeighbor = cells.get(cells.indexOf(currentNeighbors.get(RANDOM.nextInt(currentNeighbors.size()))));
-                randomNeighbor.setWasVisited(true);
-                graph.addEdge(start, randomNeighbor);
-                setChanged();
-                notifyObservers(graph.getVertex(start));
-                setChanged();
-                notifyObservers(graph.getVertex(randomNeighbor));
+            if (count > 0) {
+                int direction = directions[random.nextInt(count)];
+                int next = grid.neighbor(current, direction);
+                grid.carve(current, direction);
+                parents.set(next, grid.opposite(direction));
+                visited.set(next);
+                active.add(next);
+                notifyCell(current);
+                notifyCell(next);
                 if (debug) {
                     display();
                 }
-                unvisitedCells--;
-                stack.push(start);
             } else {
-                if (!stack.isEmpty()) {
-                    randomNeighbor = stack.pop();
-                    setChanged();
-                    notifyObservers(graph.getVertex(randomNeighbor));
+                active.removeAt(index);
+                notifyCell(current);
+            }
+        }
+        solutionPath = treePath(parents, start, start, grid.id(mazeFinish));
+    }
+
+    /**
+     * <p>
+     * Generate a maze using the hunt and kill algorithm.
+     * </p>
+     * Random walks carve long corridors until they get stuck, then the first unvisited cell
+     * next to the maze starts the next walk. Unlike the depth first algorithms no stack of
+     * cells is kept.
+     */
+    public void createMazeHuntAndKill() {
+        resetMaze();
+        carveHuntAndKill();
+
+        notifyAllObservers(mazeStart, mazeFinish);
+        printFinished("Finished creating maze using the hunt and kill algorithm");
+    }
+
+    /**
+     * <p>Hunt and kill over packed cell ids.<br>
+     * The first walk starts in the top left cell. From then on the first unvisited cell in
+     * row order has a visited neighbor to its north or west on a rectangle, so the hunt only
+     * has to find that cell, which {@link VisitedRows} does a word at a time. On other
+     * topologies that cell can lack a visited neighbor, for example a triangle that points
+     * up, and the hunt moves on to the next unvisited cells until one has.
+     */
+    void carveHuntAndKill() {
+        VisitedRows visited = new VisitedRows(width, depth);
+        DirectionArray parents = new DirectionArray(grid.size(), grid.directions());
+        int[] directions = new int[grid.directions()];
+
+        int current = 0;
+        visited.set(current);
+        while (current >= 0) {
+            // Kill: walk to random unvisited neighbors until there are none
+            int count = collectDirections(current, visited, false, directions);
+            while (count > 0) {
+                int direction = directions[random.nextInt(count)];
+                int next = grid.neighbor(current, direction);
+                grid.carve(current, direction);
+                parents.set(next, grid.opposite(direction));
+                visited.set(next);
+                notifyCell(current);
+                notifyCell(next);
+                if (debug) {
+                    display();
                 }
+                current = next;
+                count = collectDirections(current, visited, false, directions);
+            }
 
+            // Hunt: join the first unvisited cell to a visited neighbor and walk from there
+            current = visited.firstUnvisited();
+            count = 0;
+            while (current >= 0 && (count = collectDirections(current, visited, true, directions)) == 0) {
+                do {
+                    current++;
+                } while (visited.get(current));
+            }
+            if (current >= 0) {
+                int direction = directions[random.nextInt(count)];
+                grid.carve(current, direction);
+                parents.set(current, direction);
+                visited.set(current);
+                notifyCell(current);
             }
-            start = randomNeighbor;
         }
-        graph.dijkstra(graph.getVertex(mazeStart).value);
-        graph.generateSolutionGraph(mazeFinish);
+        solutionPath = treePath(parents, 0, grid.id(mazeStart), grid.id(mazeFinish));
+    }
 
-        // Maze is complete, time to let everyone know!
+    /**
+     * <p>Collects the directions of the cell whose neighbor has the given visited state.
+     * @return The number of directions written to the array.
+     */
+    private int collectDirections(int cell, VisitedRows visited, boolean wantVisited, int[] directions) {
+        int count = 0;
+        for (int direction = 0; direction < grid.directions(); direction++) {
+            int neighbor = grid.neighbor(cell, direction);
+            if (neighbor >= 0 && visited.get(neighbor) == wantVisited) {
+                directions[count++] = direction;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <p>Stops algorithms that only make sense on rows and columns of square cells.
+     * @throws UnsupportedOperationException if the maze is not rectangular.
+     */
+    private void requireRectangular(String algorithm) {
+        if (!grid.isRectangular()) {
+            throw new UnsupportedOperationException(algorithm + " needs a rectangular maze, not " + grid.getTopology());
+        }
+    }
+
+    /**
+     * <p>Puts every wall back, throws away the previous solution and restarts the random
+     * number generator from the seed so a new maze can be carved into the grid.
+     */
+    private void resetMaze() {
+        grid.clear();
+        random = new SplittableRandom(seed);
+        if (terrain != null) {
+            terrain.randomize(highestCost, terrainRandom());
+        }
+        graph = null;
+        solution = null;
+        solutionPath = null;
+        pathIndex = null;
+        solverCurrent = false;
+        dialSolverCurrent = false;
+        isSolved = false;
+    }
+
+    /**
+     * <p>Prints the given message followed by the solved maze unless the maze is quiet.
+     * @param message What was just generated.
+     */
+    private void printFinished(String message) {
+        if (!quiet) {
+            System.out.println(message);
+            display(true);
+        }
+    }
+
+    /**
+     * <p>Returns true if somebody should be told about every step of the generation.
+     * Quiet mazes are never observed, which also skips the synchronized observer count.
+     */
+    private boolean isObserved() {
+        return !quiet && countObservers() > 0;
+    }
+
+    /**
+     * <p>Lets the observers know that the given cell was just visited.
+     * @param cell The cell that changed.
+     */
+    private void notifyCell(Cell cell) {
+        if (isObserved()) {
+            setChanged();
+            notifyObservers(cell);
+        }
+    }
+
+    /**
+     * <p>Lets the observers know that the cell with the given id was just visited.
+     * @param id The packed id of the cell that changed.
+     */
+    private void notifyCell(int id) {
+        if (isObserved()) {
+            setChanged();
+            notifyObservers(grid.cell(id));
+        }
+    }
+
+    /**
+     * <p>Finds the shortest path from mazeStart to mazeFinish with a breadth first search
+     * over the grid. The solution graph is only built if somebody asks for it.
+     */
+    private void solve() {
+        int finish = grid.id(mazeFinish);
+        if (terrain != null) {
+            solutionPath = getDialSolver().path(finish);
+        } else {
+            solutionPath = getSolver().path(finish);
+        }
+        solution = null;
+    }
+
+    /**
+     * <p>Turns weighted mode on or off. In weighted mode every generation also gives the
+     * passages random costs from 1 to the highest cost, drawn from the seed of the maze,
+     * and the maze is solved for the cheapest path with Dial's algorithm. The graph view
+     * and the solution carry the costs as the cost of their edges.<br>
+     * A maze that is already carved gets costs drawn from its seed right away and is solved
+     * again.
+     * @param highestCost The highest cost of a passage, 1 turns weighted mode off.
+     */
+    public void setTerrain(int highestCost) {
+        if (highestCost < 1 || highestCost > Terrain.MAX_COST) {
+            throw new IllegalArgumentException("Costs are between 1 and " + Terrain.MAX_COST + ": " + highestCost);
+        }
+        this.highestCost = highestCost;
+        if (highestCost == 1) {
+            terrain = null;
+            dialSolver = null;
+        } else {
+            if (terrain == null) {
+                terrain = new Terrain(grid);
+            }
+            terrain.randomize(highestCost, terrainRandom());
+        }
+        graph = null;
+        solution = null;
+        dialSolverCurrent = false;
+        if (solutionPath != null) {
+            solve();
+        }
+    }
+
+    /**
+     * <p>Returns a random number generator for the costs of the passages. It is a stream of
+     * its own drawn from the seed, apart from the one that places the start and finish and
+     * carves the maze, so weighted mode changes the costs but never the maze the same seed
+     * carves.
+     */
+    private SplittableRandom terrainRandom() {
+        return new SplittableRandom(seed ^ TERRAIN_SALT);
+    }
+
+    /**
+     * <p>Returns the costs of the passages, or null if the maze is not in weighted mode.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * <p>Returns the cost of walking the solution, which is its number of passages when the
+     * maze is not in weighted mode.
+     * @return the cost of the solution or -1 if the maze has not been solved.
+     */
+    public long getSolutionCost() {
+        if (solutionPath == null) {
+            return -1;
+        }
+        return terrain == null ? solutionPath.length - 1 : terrain.pathCost(solutionPath);
+    }
+
+    /**
+     * <p>Returns the Dial's algorithm solver of this maze in weighted mode, holding the costs
+     * and parents of the cheapest paths from mazeStart up to mazeFinish. The tree generators
+     * read their solution off the generation instead of searching, so the search runs the
+     * first time the solver is requested after the maze or its terrain changes.
+     * @return the solver over the terrain of this maze.
+     * @throws IllegalStateException if the maze is not in weighted mode.
+     */
+    public DialSolver getDialSolver() {
+        if (terrain == null) {
+            throw new IllegalStateException("The maze is not in weighted mode");
+        }
+        if (dialSolver == null) {
+            dialSolver = new DialSolver(terrain);
+        }
+        if (!dialSolverCurrent) {
+            dialSolver.solve(grid.id(mazeStart), grid.id(mazeFinish));
+            dialSolverCurrent = true;
+        }
+        return dialSolver;
+    }
+
+    /**
+     * <p>Solves the maze again with A*, which only expands the cells that look like they
+     * lead towards mazeFinish. The path is the same length as the one solve() finds and
+     * replaces it as the solution.
+     * @return the number of cells A* expanded.
+     */
+    public int solveAStar() {
+        if (aStar == null) {
+            aStar = new AStarSolver(grid);
+        }
+        int finish = grid.id(mazeFinish);
+        aStar.solve(grid.id(mazeStart), finish);
+        solutionPath = aStar.path(finish);
+        solution = null;
+        return aStar.getExpanded();
+    }
+
+    /**
+     * <p>Solves the maze again with a breadth first search from both mazeStart and
+     * mazeFinish that stops where the two meet. The path replaces the solution and the
+     * observers are sent the solution like they are after generating the maze.
+     * @return the number of passages from mazeStart to mazeFinish.
+     */
+    public int solveBidirectional() {
+        if (bidirectional == null) {
+            bidirectional = new BidirectionalSolver(grid);
+        }
+        int length = bidirectional.solve(grid.id(mazeStart), grid.id(mazeFinish));
+        solutionPath = bidirectional.path();
+        solution = null;
         notifyAllObservers(mazeStart, mazeFinish);
+        return length;
+    }
+
+    /**
+     * <p>Returns an index that answers the distance and the path between any two cells of
+     * this maze without searching. It is built the first time it is requested after the
+     * maze is generated.
+     * @return the path index of the current maze.
+     * @throws IllegalArgumentException if the maze is not perfect.
+     */
+    public MazePathIndex getPathIndex() {
+        if (pathIndex == null) {
+            pathIndex = new MazePathIndex(grid);
+        }
+        return pathIndex;
+    }
+
+    /**
+     * <p>Returns the breadth first search solver of this maze, holding the distances and
+     * parents of the search from mazeStart up to mazeFinish. Like {@link #getDialSolver()}
+     * the search runs the first time the solver is requested after the maze changes.
+     * @return the solver over the grid of this maze.
+     */
+    public MazeSolver getSolver() {
+        if (solver == null) {
+            solver = new MazeSolver(grid);
+        }
+        if (!solverCurrent) {
+            solver.solve(grid.id(mazeStart), grid.id(mazeFinish));
+            solverCurrent = true;
+        }
+        return solver;
+    }
 
-        System.out.println("Finished creating maze using a recursive backtracking algorithm");
-        display(true);
+    /**
+     * <p>Returns the path from mazeStart to mazeFinish as a directed graph whose vertices are
+     * ordered from start to finish. When the path was recorded as packed ids the graph is
+     * built the first time it is requested.
+     * @return the solution graph or null if the maze has not been solved.
+     */
+    public Graph<Cell> getSolution() {
+        if (solution == null && solutionPath != null) {
+            solution = new Graph<Cell>(true);
+            for (int i = 1; i < solutionPath.length; i++) {
+                int from = solutionPath[i - 1];
+                int to = solutionPath[i];
+                int cost = terrain == null ? 1 : terrain.cost(from, grid.direction(from, to));
+                solution.addEdge(grid.cell(from), grid.cell(to), cost);
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * <p>Returns a Graph view of the maze. The view is built from the grid the first time
+     * it is requested after the maze changes.
+     * @return the graph of all passages in the maze.
+     */
+    public Graph<Cell> getGraph() {
+        if (graph == null) {
+            graph = terrain == null ? grid.toGraph() : terrain.toGraph();
+        }
+        return graph;
     }
 
     /**
@@ -340,19 +1279,20 @@ public class Maze extends Observable {
      * @param finishCell Exit location of maze path.
      */
     private void notifyAllObservers(Cell startingCell, Cell finishCell) {
-        if (graph.solution != null && graph.solution.contains(startingCell) && graph.solution.contains(finishCell)) {
+        Graph<Cell> solution = isObserved() ? getSolution() : null;
+        if (solution != null && solution.contains(startingCell) && solution.contains(finishCell)) {
             setChanged();
             notifyObservers(COMMAND_IS_SOLUTION);
             setChanged();
-            notifyObservers(graph.solution.getVertex(startingCell));
+            notifyObservers(solution.getVertex(startingCell));
 
             setChanged();
             notifyObservers(COMMAND_IS_SOLUTION);
             setChanged();
-            notifyObservers(graph.solution.getVertex(finishCell));
+            notifyObservers(solution.getVertex(finishCell));
 
             // Send over the solutions
-            for (Vertex<Cell> v: graph.solution.getVertexes()) {
+            for (Vertex<Cell> v: solution.getVertexes()) {
                 setChanged();
                 notifyObservers(COMMAND_IS_SOLUTION);
                 setChanged();
@@ -360,8 +1300,10 @@ public class Maze extends Observable {
             }
         }
 
-        setChanged();
-        notifyObservers(COMMAND_MAZE_COMPLETE);
+        if (!quiet) {
+            setChanged();
+            notifyObservers(COMMAND_MAZE_COMPLETE);
+        }
     }
 
     /**
@@ -386,220 +1328,45 @@ public class Maze extends Observable {
      * </ol>
      */
     public void createMazePrimsHorizontalBias() {
-        graph.clearAll();
-        graph = new Graph<Cell>();
-        // Initial starting cell
-        ArrayList<Cell> cells = new ArrayList<Cell>();
-        ArrayList<Cell> walls = new ArrayList<Cell>();;    
+        resetMaze();
+        carvePrims(true);
 
-        // Start with a list of all cells that belong in the maze
-        for (int row = 0; row < depth; row++) {
-            for (int column = 0; column < width; column++) {
-                cells.add(new Cell(column, row));
-            }
-        }
-
-        // 3. Repeat step 2 until all vertices are connected.
-
-        // 1. Choose any starting vertex.
-        Cell start = mazeStart;
-
-        // Add all of its neighbors to the wall list and choose one to be in the maze
-        walls.addAll(getNeighbors(start));
-        Cell randomNeighbor = walls.remove(RANDOM.nextInt(walls.size()));
-        graph.addEdge(start, randomNeighbor);
-
-        // Notify to our maze that we have our first possible path
-        setChanged();
-        notifyObservers(graph.getVertex(start));
-        if (debug) {
-            display();
-        }
-
-        // While there are still walls in the walls list.
-        while (walls.size() > 0) {
-
-            // 2. Choose the random edge from any previously-chosen vertex to an unchosen vertex.
-            // Choose one of its neighbors at random to be in the maze
-            // Now add all of the neighbors to the possible walls list which are not in G
-            for (Vertex<Cell> v: graph.getVertexes()) {
-                List<Cell> neighborsOfV = getNeighborsNotInGraph(v.value, graph);
-                for(Cell c : neighborsOfV) {
-                    if (!walls.contains(c)) {
-                        walls.add(c);
-                    }
-                }
-            }
-
-            // Grab a random neighbor not yet in G
-            randomNeighbor = walls.remove(RANDOM.nextInt(walls.size()));
-
-            // Find an adjacent neighbor who is in G
-            start = getNeighborInGraph(randomNeighbor, graph);
-            graph.addEdge(start, randomNeighbor);
-            setChanged();
-            notifyObservers(graph.getVertex(start));
-            setChanged();
-            notifyObservers(graph.getVertex(randomNeighbor));
-            if (debug) {
-                display();
-            }
-        }
-
-        graph.dijkstra(graph.getVertex(mazeStart).value);
-        System.out.println("Finished creating maze using Prim's algorithm");
-        graph.generateSolutionGraph(mazeFinish);
         notifyAllObservers(mazeStart, mazeFinish);
-        display(true);
-    }
-
-    /**
-     * <p>Helper method to return neighbor of a desired cell that is 
-     * in the graph. 
-     * @param cell desired cell to find neighbors of.
-     * @param graph that contains cell. 
-     * @return a neighbor of the cell. 
-     */
-    private Cell getNeighborInGraph(Cell cell, Graph<Cell> graph) {
-        List<Cell> neighbors = new ArrayList<Cell>();
-        Cell possibleNeighbor = null;
-        
-        // Add east and west neighbors only
-        for(Cell neighbor: getNeighbors(cell)) {
-            if(graph.contains(neighbor)  && neighbor.equals(getEastNeighbor(cell))) {
-                neighbors.add(graph.getVertex(neighbor).value);
-            }else if(graph.contains(neighbor)  && neighbor.equals(getWestNeighbor(cell))) {
-                neighbors.add(graph.getVertex(neighbor).value);
-            }
-        }
-        
-        if (neighbors.size() < 1) {
-            for(Cell neighbor: getNeighbors(cell)) {
-                if(graph.contains(neighbor)) {
-                    neighbors.add(graph.getVertex(neighbor).value);
-                }
-            }
-        }
-        
-        if (!neighbors.isEmpty()) {
-            // If east neighbor go east, if west neighbor go west else pick randomly north or south
-            possibleNeighbor = neighbors.get(RANDOM.nextInt(neighbors.size())); /// ##########################
-        }
-        return possibleNeighbor;
-    }
-
-    /**
-     * <p>Helper method that takes a cell and the graph containing it as a parameter. Returns a randomly 
-     * selects and returns a neighboring cell. 
-     * 
-     * @param cell that to retrieve a random neighbor.
-     * @param graph containing the cell.
-     * @return randomly selected neighboring cell. 
-     */
-    private Cell getRandomNeighborInGraph(Cell cell, Graph<Cell> graph) {
-        List<Cell> neighbors = new ArrayList<Cell>();
-        Cell possibleNeighbor = null;
-        for(Cell neighbor: getNeighbors(cell)) {
-            if(graph.contains(neighbor)) {
-                neighbors.add(graph.getVertex(neighbor).value);
-                //                possibleNeighbor = graph.getVertex(neighbor).value;
-            }
-        }
-        if (!neighbors.isEmpty()) {
-            possibleNeighbor = neighbors.get(RANDOM.nextInt(neighbors.size()));
-        }
-        return possibleNeighbor;
-    }
-
-    /**
-     * <p>Helper method to retrieve a selected cell's possible neighbors. 
-     * @param cell desired to retrieve neighbors not located in graph. 
-     * @param graph containing the cell. 
-     * @return the list of cells not located in the graph. 
-     */
-    private List<Cell> getNeighborsNotInGraph(Cell cell, Graph<Cell> graph) { //// ######################################
-        List<Cell> allPossibleNeighbors = new ArrayList<Cell>();
-        for(Vertex<Cell> v: graph.getVertexes()) {
-            for(Cell neighbor: getNeighbors(v.value)) {
-                // Add north neighbor
-                if (!graph.contains(neighbor)) {
-                    allPossibleNeighbors.add(neighbor);
-                }
-            }
-        }
-        return allPossibleNeighbors;
+        printFinished("Finished creating maze using Prim's algorithm");
     }
 
     /**
      * <p>Method tasked with retrieving a list of all existing neighbors of particular cell. 
+     * The neighbors come from the topology of the maze, the generators work on packed ids instead.
      * @param cell desired to retrieve list containing all existing neighbors.
      * @return list containing all neighboring cells. 
      */
     public ArrayList<Cell> getNeighbors(Cell cell) {
-        ArrayList<Cell> allPossibleNeighbors = new ArrayList<Cell>();
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell northNeighbor = new Cell(x, y - 1);
-        Cell eastNeighbor = new Cell(x + 1, y);
-        Cell southNeighbor = new Cell(x, y + 1);
-        Cell westNeighbor = new Cell(x - 1, y);
-
-        // Add north neighbor
-        if (northNeighbor.getY() >= 0) {
-            allPossibleNeighbors.add(northNeighbor);
-        }
-
-        // Add east neighbor
-        if (eastNeighbor.getX() < width) {
-            allPossibleNeighbors.add(eastNeighbor);
-        }
-
-        // Add south neighbor
-        if (southNeighbor.getY() < depth) {
-            allPossibleNeighbors.add(southNeighbor);
-        }
-
-        // Add west neighbor
-        if (westNeighbor.getX() >= 0) {
-            allPossibleNeighbors.add(westNeighbor);
+        ArrayList<Cell> allPossibleNeighbors = new ArrayList<Cell>(grid.directions());
+        int id = grid.id(cell);
+        for (int direction = 0; direction < grid.directions(); direction++) {
+            int neighbor = grid.neighbor(id, direction);
+            if (neighbor >= 0) {
+                allPossibleNeighbors.add(grid.cell(neighbor));
+            }
         }
         return allPossibleNeighbors;
     }
 
     /**
-     * <p>Method tasked with retrieving a list of all existing neighbors of particular cell. 
-     * @param cell desired to retrieve list containing all existing neighbors.
-     * @return list containing all neighboring cells. 
+     * <p>Returns true if the cell has a neighbor in every direction, which means it is not
+     * on the boundary of the maze.
+     * @param cell The cell to check.
+     * @return true if no direction of the cell leaves the maze.
      */
     public boolean isValidNeighbor(Cell cell) {
-        boolean isValid = true;
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell northNeighbor = new Cell(x, y - 1);
-        Cell eastNeighbor = new Cell(x + 1, y);
-        Cell southNeighbor = new Cell(x, y + 1);
-        Cell westNeighbor = new Cell(x - 1, y);
-
-        // Add north neighbor
-        if (!(northNeighbor.getY() >= 0)) {
-            isValid = false;
-        }
-
-        // Add east neighbor
-        if (!(eastNeighbor.getX() < width)) {
-            isValid = false;
-        }
-
-        // Add south neighbor
-        if (!(southNeighbor.getY() < depth)) {
-            isValid = false;
-        }
-
-        // Add west neighbor
-        if (!(westNeighbor.getX() >= 0)) {
-            isValid = false;
+        int id = grid.id(cell);
+        for (int direction = 0; direction < grid.directions(); direction++) {
+            if (grid.neighbor(id, direction) < 0) {
+                return false;
+            }
         }
-        return isValid;
+        return true;
     }
 
     /**
@@ -608,70 +1375,42 @@ public class Maze extends Observable {
      * @return the cell located to the north if it exists, else null. 
      */
     public Cell getNorthNeighbor(Cell cell) {
-        Cell northNeighbor = null;
-        /* The current cell's x and y coordinate */
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell possibleNorthNeighbor = new Cell(x, y - 1);
-        // Add north neighbor
-        if (possibleNorthNeighbor.getY() >= 0) {
-            northNeighbor = possibleNorthNeighbor;
-        }
-        return northNeighbor;
+        return neighborCell(cell, WallGrid.NORTH);
     }
 
     /**
      * <p>Helper method to retrieve a selected cell's east neighbor. 
-     * @param cell desired to retrieve neighbor to the north. 
-     * @return the cell located to the north if it exists, else null. 
+     * @param cell desired to retrieve neighbor to the east. 
+     * @return the cell located to the east if it exists, else null. 
      */
     public Cell getEastNeighbor(Cell cell) {
-        Cell eastNeighbor = null;
-        /* The current cell's x and y coordinate */
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell possibleEastNeighbor = new Cell(x + 1, y);
-        // Add north neighbor
-        if (possibleEastNeighbor.getX() < width) {
-            eastNeighbor = possibleEastNeighbor;
-        }
-        return eastNeighbor;
+        return neighborCell(cell, WallGrid.EAST);
     }
 
     /**
      * <p>Helper method to retrieve a selected cell's south neighbor. 
-     * @param cell desired to retrieve neighbor to the north. 
-     * @return the cell located to the north if it exists, else null. 
+     * @param cell desired to retrieve neighbor to the south. 
+     * @return the cell located to the south if it exists, else null. 
      */
     public Cell getSouthNeighbor(Cell cell) {
-        Cell southNeighbor = null;
-        /* The current cell's x and y coordinate */
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell possibleSouthNeighbor = new Cell(x, y + 1);
-        // Add north neighbor
-        if (possibleSouthNeighbor.getY() < depth) {
-            southNeighbor = possibleSouthNeighbor;
-        }
-        return southNeighbor;
+        return neighborCell(cell, WallGrid.SOUTH);
     }
 
     /**
      * <p>Helper method to retrieve a selected cell's west neighbor. 
-     * @param cell desired to retrieve neighbor to the north. 
-     * @return the cell located to the north if it exists, else null. 
+     * @param cell desired to retrieve neighbor to the west. 
+     * @return the cell located to the west if it exists, else null. 
      */
     public Cell getWestNeighbor(Cell cell) {
-        Cell westNeighbor = null;
-        /* The current cell's x and y coordinate */
-        int x = cell.getX(), y = cell.getY();
-        // All possible neighbors within reach from our current position
-        Cell possibleWestNeighbor = new Cell(x - 1, y);
-        // Add north neighbor
-        if (possibleWestNeighbor.getX() >= 0) {
-            westNeighbor = possibleWestNeighbor;
-        }
-        return westNeighbor;
+        return neighborCell(cell, WallGrid.WEST);
+    }
+
+    /**
+     * <p>Returns the neighbor of the cell in one of the WallGrid directions or null.
+     */
+    private Cell neighborCell(Cell cell, int direction) {
+        int neighbor = grid.neighbor(grid.id(cell), direction);
+        return neighbor < 0 ? null : grid.cell(neighbor);
     }
 
 
@@ -698,6 +1437,10 @@ public class Maze extends Observable {
      * @param showSolution
      */
     void display(boolean showSolution) {
+        if (!grid.isRectangular()) {
+            System.out.println(grid.getTopology() + " mazes can not be drawn as text");
+            return;
+        }
 
         final String WALL = "X ";
 
@@ -707,6 +1450,7 @@ public class Maze extends Observable {
         final String SHORTEST_PATH = "+ ";
 
         StringBuilder sb = new StringBuilder();
+        Graph<Cell> solution = showSolution ? getSolution() : null;
 
         sb.append(WALL);
         for (int i = 0; i < width; i++) {
@@ -725,10 +1469,8 @@ public class Maze extends Observable {
             if(row > 0){sb.append(WALL);}
             for (int column = 0; column < width && row > 0; column++) {
                 /* The current cell that should be written to a string. */
-                Cell cell = new Cell(column, row);
-                Cell northNeighbor = getNorthNeighbor(cell);
-                // If a vertex exists append a PATH else append some PADDING
-                if (graph.isAdjacent(northNeighbor, cell)) {
+                // If a passage exists append some PADDING else append a WALL
+                if (grid.isOpen(grid.id(column, row), WallGrid.NORTH)) {
                     sb.append(PADDING);
                 } else {
                     sb.append(WALL);
@@ -747,12 +1489,12 @@ public class Maze extends Observable {
             for (int column = 0; column < width; column++) {
                 /* The current cell that should be written to a string. */
                 Cell cell = new Cell(column, row);
-                Cell rightNeighbor = getEastNeighbor(cell);
+                int id = grid.id(column, row);
                 // If a vertex exists append a PATH else append some PADDING
-                if (graph.contains(cell)) {
-                    if (showSolution && graph.solution.contains(cell)) {
+                if (grid.hasPassage(id)) {
+                    if (solution != null && solution.contains(cell)) {
                         sb.append(SHORTEST_PATH);
-                    } else if (showSolution && !graph.solution.contains(cell)) {
+                    } else if (showSolution) {
                         sb.append(PADDING);
                     } else {
                         sb.append(PATH);
@@ -762,7 +1504,7 @@ public class Maze extends Observable {
                 }
                 // If we have a path to our neighbor we print more padding OR
                 // we print an X representing a wall.
-                if (graph.isAdjacent(cell, rightNeighbor)) {
+                if (grid.isOpen(id, WallGrid.EAST)) {
                     sb.append(PADDING);
                 } else {
                     sb.append(WALL);
@@ -796,7 +1538,7 @@ public class Maze extends Observable {
         sb.append("Debug: " + debug + "\n");
         sb.append("Maze Start: " + mazeStart + "\n");
         sb.append("Maze Finish: " + mazeFinish + "\n");
-        sb.append("Graph: " + graph + "\n\n");
+        sb.append("Graph: " + getGraph() + "\n\n");
         return sb.toString();
     }// End of toString()
 
@@ -0,0 +1,171 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>
+ * The maze generation algorithms that Maze offers, with the same names MazeGUI shows.<br>
+ * {@link #generate(Maze)} runs the full createMaze method, including the solution and the
+ * observer notifications. {@link #carve(Maze)} only carves the passages into the grid of
+ * the maze, which is what tiled and batch generation use.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public enum MazeAlgorithm {
+
+    PRIMS("Prim's Algorithm") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazePrims();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carvePrims(false);
+        }
+    },
+
+    PRIMS_HORIZONTAL_BIAS("Prim's Algorithm (horizontal bias)") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazePrimsHorizontalBias();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carvePrims(true);
+        }
+    },
+
+    RECURSIVE_BACKTRACKER("Recursive Backtracker") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeRecursiveBacktracker();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveRecursiveBacktracker();
+        }
+    },
+
+    DEPTH_FIRST_RECURSIVE("Recursive depth first") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeDepthFirstRecursive();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveDepthFirst();
+        }
+    },
+
+    KRUSKAL("Kruskal's Algorithm") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeKruskal();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveKruskal();
+        }
+    },
+
+    WILSON("Wilson's Algorithm") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeWilson();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveWilson();
+        }
+    },
+
+    RECURSIVE_DIVISION("Recursive Division") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeRecursiveDivision();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveRecursiveDivision(ForkJoinPool.commonPool());
+        }
+    },
+
+    BINARY_TREE("Binary Tree") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeBinaryTree();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            RowMazeGenerator.BINARY_TREE.carve(maze.grid, maze.random);
+        }
+    },
+
+    SIDEWINDER("Sidewinder") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeSidewinder();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            RowMazeGenerator.SIDEWINDER.carve(maze.grid, maze.random);
+        }
+    },
+
+    GROWING_TREE("Growing Tree") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeGrowingTree(GrowingTreeStrategy.MIXED);
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveGrowingTree(GrowingTreeStrategy.MIXED);
+        }
+    },
+
+    HUNT_AND_KILL("Hunt and Kill") {
+        @Override
+        public void generate(Maze maze) {
+            maze.createMazeHuntAndKill();
+        }
+
+        @Override
+        void carve(Maze maze) {
+            maze.carveHuntAndKill();
+        }
+    };
+
+
+    /* The name shown to the user. */
+    private final String label;
+
+    private MazeAlgorithm(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Generates and solves a maze with this algorithm and notifies the observers of the maze.
+     * @param maze The maze to generate.
+     */
+    public abstract void generate(Maze maze);
+
+    /**
+     * Carves the passages of a perfect maze into the empty grid of the given maze.
+     * @param maze The maze to carve.
+     */
+    abstract void carve(Maze maze);
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * Generates many mazes concurrently.<br>
+ * Every maze is generated in quiet mode from its own seed, so the workers share no mutable
+ * state, print nothing and notify no observers. The mazes come back as a stream in the order
+ * of the specs. Only a bounded number of mazes are generated ahead of the consumer, so a slow
+ * consumer holds the workers back instead of filling memory with finished mazes.
+ * </p>
+ * <p>
+ * A batch either owns a fixed pool of platform threads, which {@link #close()} shuts down,
+ * or runs on an executor supplied by the caller, such as a virtual thread per task executor
+ * on runtimes that have one.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeBatch implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    /* True when the executor was created by this batch and must be shut down by it. */
+    private final boolean ownsExecutor;
+
+    /* The most mazes that are queued or being generated ahead of the consumer. */
+    private final int maxInFlight;
+
+    /**
+     * Creates a batch with its own pool of the given number of threads.
+     * @param threads The number of worker threads, usually the number of cores.
+     */
+    public MazeBatch(int threads) {
+        this(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "maze-batch");
+            thread.setDaemon(true);
+            return thread;
+        }), threads * 4, true);
+    }
+
+    /**
+     * Creates a batch that runs on the given executor, which the caller keeps ownership of.
+     * @param executor Runs the generations.
+     * @param maxInFlight The most mazes generated ahead of the consumer, at least one.
+     */
+    public MazeBatch(ExecutorService executor, int maxInFlight) {
+        this(executor, maxInFlight, false);
+    }
+
+    private MazeBatch(ExecutorService executor, int maxInFlight, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one maze must be allowed in flight: " + maxInFlight);
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Generates the mazes described by the specs.<br>
+     * Generation starts when the stream is first read. Closing the stream cancels the
+     * mazes that have not been generated yet.
+     *
+     * @param specs The mazes to generate.
+     * @return The generated and solved mazes in the order of the specs.
+     * @throws IllegalStateException from the stream if a maze could not be generated.
+     */
+    public Stream<Maze> generate(List<MazeSpec> specs) {
+        Results results = new Results(specs);
+        Spliterator<Maze> spliterator = Spliterators.spliterator(results, specs.size(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(results::cancel);
+    }
+
+    /**
+     * Shuts down the pool of this batch if it created one.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Hands out finished mazes in order and submits a new spec for every maze taken, so
+     * no more than maxInFlight mazes are ever waiting.
+     */
+    private class Results implements Iterator<Maze> {
+
+        private final Iterator<MazeSpec> specs;
+
+        private final ArrayDeque<Future<Maze>> pending = new ArrayDeque<Future<Maze>>();
+
+        Results(List<MazeSpec> specs) {
+            this.specs = specs.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Maze next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Future<Maze> head = pending.poll();
+            try {
+                return head.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a maze", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to generate a maze", e.getCause());
+            } finally {
+                fill();
+            }
+        }
+
+        /**
+         * Tops the pending mazes up to the limit.
+         */
+        private void fill() {
+            while (pending.size() < maxInFlight && specs.hasNext()) {
+                MazeSpec spec = specs.next();
+                pending.add(executor.submit(spec::generate));
+            }
+        }
+
+        void cancel() {
+            for (Future<Maze> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+        }
+    }
+}
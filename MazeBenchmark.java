@@ -0,0 +1,425 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A small timing harness for the maze generators and solvers.<br>
+ * Each benchmark is warmed up before it is measured and the median of the measured
+ * rounds is reported, which is enough to compare algorithms and sizes on one machine.
+ * Generation runs on quiet mazes without observers so only the algorithm is measured.
+ * </p>
+ * <p>
+ * Run with <code>java MazeBenchmark [name]</code> where the optional name selects a
+ * single benchmark.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeBenchmark {
+
+    /** The number of untimed rounds used to warm up the JIT. */
+    private static final int WARMUP_ROUNDS = 3;
+
+    /** The number of timed rounds. */
+    private static final int MEASURED_ROUNDS = 5;
+
+    /** The number of nanoseconds in one millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Runs every benchmark, or only the one named by the first argument.
+     * @param args An optional benchmark name.
+     */
+    public static void main(String[] args) {
+        String only = args.length > 0 ? args[0] : null;
+        if (only == null || only.equals("backtracker")) {
+            benchmarkRecursiveBacktracker();
+        }
+        if (only == null || only.equals("wilson")) {
+            benchmarkWilson();
+        }
+        if (only == null || only.equals("division")) {
+            benchmarkRecursiveDivision();
+        }
+        if (only == null || only.equals("solve")) {
+            benchmarkSolvers();
+        }
+        if (only == null || only.equals("graph")) {
+            benchmarkWeightedGraphs();
+        }
+        if (only == null || only.equals("batch")) {
+            benchmarkBatch();
+        }
+        if (only == null || only.equals("world")) {
+            benchmarkWorld();
+        }
+    }
+
+    /**
+     * Times the recursive backtracker on square mazes up to 5000 by 5000.
+     */
+    private static void benchmarkRecursiveBacktracker() {
+        for (int size : new int[] {500, 1000, 2000, 5000}) {
+            measureGeneration("Recursive backtracker", size, Maze::carveRecursiveBacktracker);
+        }
+    }
+
+    /**
+     * Compares Wilson's algorithm with Prim's and the recursive backtracker at several sizes.
+     */
+    private static void benchmarkWilson() {
+        for (int size : new int[] {100, 250, 500, 1000}) {
+            measureGeneration("Wilson's algorithm", size, Maze::carveWilson);
+            measureGeneration("Prim's algorithm", size, maze -> maze.carvePrims(false));
+            measureGeneration("Recursive backtracker", size, Maze::carveRecursiveBacktracker);
+        }
+    }
+
+    /**
+     * Times the fork/join recursive division on pools of one thread up to one per core.
+     */
+    private static void benchmarkRecursiveDivision() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int size : new int[] {1000, 5000, 10000}) {
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                measureGeneration("Recursive division (" + threads + " threads)", size,
+                        maze -> maze.carveRecursiveDivision(pool));
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Compares Dijkstra's algorithm on the graph view of a maze with the breadth first search
+     * of MazeSolver. Both compute the distance of every cell from the top left corner. The
+     * graph is built before the clock starts, as Maze keeps it between solves.
+     */
+    private static void benchmarkSolvers() {
+        for (int size : new int[] {250, 500, 1000}) {
+            Maze maze = newQuietMaze(size);
+            maze.carveRecursiveBacktracker();
+            Graph<Cell> graph = maze.grid.toGraph();
+            Cell corner = new Cell(0, 0);
+            long[] dijkstraTimes = new long[MEASURED_ROUNDS];
+            long[] bfsTimes = new long[MEASURED_ROUNDS];
+            MazeSolver solver = new MazeSolver(maze.grid);
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long begin = System.nanoTime();
+                graph.dijkstra(corner);
+                long dijkstra = System.nanoTime() - begin;
+                begin = System.nanoTime();
+                solver.solve(0);
+                long bfs = System.nanoTime() - begin;
+                if (round >= WARMUP_ROUNDS) {
+                    dijkstraTimes[round - WARMUP_ROUNDS] = dijkstra;
+                    bfsTimes[round - WARMUP_ROUNDS] = bfs;
+                }
+            }
+            report("Graph.dijkstra", size + " x " + size, dijkstraTimes);
+            report("MazeSolver breadth first search", size + " x " + size, bfsTimes);
+        }
+        benchmarkAStar();
+        benchmarkPathIndex();
+    }
+
+    /**
+     * Times building a MazePathIndex and answering distance queries between random pairs of
+     * cells with it, compared with a breadth first search per query.
+     */
+    private static void benchmarkPathIndex() {
+        int queries = 1_000_000;
+        for (int size : new int[] {500, 1000, 2000}) {
+            Maze maze = newQuietMaze(size);
+            maze.carveRecursiveBacktracker();
+            int cells = maze.grid.size();
+            int[] pairs = new int[2 * queries];
+            SplittableRandom random = new SplittableRandom(size);
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = random.nextInt(cells);
+            }
+            long[] buildTimes = new long[MEASURED_ROUNDS];
+            long[] queryTimes = new long[MEASURED_ROUNDS];
+            long checksum = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long begin = System.nanoTime();
+                MazePathIndex index = new MazePathIndex(maze.grid);
+                long build = System.nanoTime() - begin;
+                begin = System.nanoTime();
+                checksum = 0;
+                for (int i = 0; i < pairs.length; i += 2) {
+                    checksum += index.distance(pairs[i], pairs[i + 1]);
+                }
+                long query = System.nanoTime() - begin;
+                if (round >= WARMUP_ROUNDS) {
+                    buildTimes[round - WARMUP_ROUNDS] = build;
+                    queryTimes[round - WARMUP_ROUNDS] = query;
+                }
+            }
+            MazeSolver solver = new MazeSolver(maze.grid);
+            long[] searchTimes = new long[MEASURED_ROUNDS];
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                int pair = 2 * (round % queries);
+                long begin = System.nanoTime();
+                solver.solve(pairs[pair], pairs[pair + 1]);
+                long search = System.nanoTime() - begin;
+                if (round >= WARMUP_ROUNDS) {
+                    searchTimes[round - WARMUP_ROUNDS] = search;
+                }
+            }
+            report("Path index build", size + " x " + size, buildTimes);
+            // Using the distances keeps the JIT from dropping the queries
+            if (checksum < queries) {
+                throw new IllegalStateException("Distances add up to only " + checksum);
+            }
+            report("Path index, " + queries + " distances", size + " x " + size, queryTimes);
+            report("Breadth first search, one distance", size + " x " + size, searchTimes);
+        }
+    }
+
+    /**
+     * Compares A* and the breadth first search from both ends with a breadth first search
+     * that stops at the finish, for a finish in the opposite corner and for a finish near
+     * the middle, and prints how many cells A* expanded and the two way search visited.
+     */
+    private static void benchmarkAStar() {
+        for (int size : new int[] {500, 1000, 2000}) {
+            Maze maze = newQuietMaze(size);
+            maze.carveRecursiveBacktracker();
+            MazeSolver bfs = new MazeSolver(maze.grid);
+            AStarSolver aStar = new AStarSolver(maze.grid);
+            BidirectionalSolver bidirectional = new BidirectionalSolver(maze.grid);
+            int start = maze.grid.id(0, 0);
+            int[] finishes = {maze.grid.id(size - 1, size - 1), maze.grid.id(size / 2, size / 2)};
+            String[] names = {"corner", "middle"};
+            for (int i = 0; i < finishes.length; i++) {
+                int finish = finishes[i];
+                long[] bfsTimes = new long[MEASURED_ROUNDS];
+                long[] aStarTimes = new long[MEASURED_ROUNDS];
+                long[] bidirectionalTimes = new long[MEASURED_ROUNDS];
+                for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                    long begin = System.nanoTime();
+                    int bfsLength = bfs.solve(start, finish);
+                    long bfsTime = System.nanoTime() - begin;
+                    begin = System.nanoTime();
+                    int aStarLength = aStar.solve(start, finish);
+                    long aStarTime = System.nanoTime() - begin;
+                    begin = System.nanoTime();
+                    int bidirectionalLength = bidirectional.solve(start, finish);
+                    long bidirectionalTime = System.nanoTime() - begin;
+                    if (bfsLength != aStarLength || bfsLength != bidirectionalLength) {
+                        throw new IllegalStateException("Breadth first search found " + bfsLength + ", A* "
+                                + aStarLength + " and the two way search " + bidirectionalLength);
+                    }
+                    if (round >= WARMUP_ROUNDS) {
+                        bfsTimes[round - WARMUP_ROUNDS] = bfsTime;
+                        aStarTimes[round - WARMUP_ROUNDS] = aStarTime;
+                        bidirectionalTimes[round - WARMUP_ROUNDS] = bidirectionalTime;
+                    }
+                }
+                report("Breadth first search to " + names[i], size + " x " + size, bfsTimes);
+                report("A* to " + names[i] + " (" + aStar.getExpanded() + " expanded)", size + " x " + size, aStarTimes);
+                report("Two way search to " + names[i] + " (" + bidirectional.getVisited() + " visited)",
+                        size + " x " + size, bidirectionalTimes);
+            }
+        }
+    }
+
+    /**
+     * Times Graph.dijkstra on random directed graphs with 10^6 edges and costs between one
+     * and a hundred, from sparse graphs with many vertices to denser ones with few.
+     */
+    private static void benchmarkWeightedGraphs() {
+        int edges = 1_000_000;
+        for (int vertices : new int[] {250_000, 100_000, 10_000}) {
+            SplittableRandom random = new SplittableRandom(vertices);
+            Graph<Integer> graph = new Graph<Integer>(true, vertices);
+            for (int vertex = 0; vertex < vertices; vertex++) {
+                graph.getVertex(vertex);
+            }
+            // A ring makes every vertex reachable, the rest of the edges are random
+            for (int vertex = 0; vertex < vertices; vertex++) {
+                graph.addEdge(vertex, (vertex + 1) % vertices, 1 + random.nextInt(100));
+            }
+            for (int edge = vertices; edge < edges; edge++) {
+                graph.addEdge(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(100));
+            }
+            long[] times = new long[MEASURED_ROUNDS];
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long begin = System.nanoTime();
+                graph.dijkstra(0);
+                long elapsed = System.nanoTime() - begin;
+                if (round >= WARMUP_ROUNDS) {
+                    times[round - WARMUP_ROUNDS] = elapsed;
+                }
+            }
+            report("Graph.dijkstra, " + edges + " edges", vertices + " vertices", times);
+        }
+        benchmarkTerrain();
+    }
+
+    /**
+     * Compares Dial's algorithm with Graph.dijkstra on the weighted graph view of an open
+     * grid, where every wall has been removed so there are many paths to choose from, with
+     * passage costs up to 10 and up to 100.
+     */
+    private static void benchmarkTerrain() {
+        checkTerrainKeepsLayout();
+        int size = 500;
+        for (int highestCost : new int[] {10, 100}) {
+            WallGrid grid = new WallGrid(size, size);
+            grid.openAll();
+            Terrain terrain = new Terrain(grid);
+            terrain.randomize(highestCost, new SplittableRandom(highestCost));
+            Graph<Cell> graph = terrain.toGraph();
+            DialSolver dial = new DialSolver(terrain);
+            Cell corner = new Cell(0, 0);
+            long[] dijkstraTimes = new long[MEASURED_ROUNDS];
+            long[] dialTimes = new long[MEASURED_ROUNDS];
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                long begin = System.nanoTime();
+                graph.dijkstra(corner);
+                long dijkstra = System.nanoTime() - begin;
+                begin = System.nanoTime();
+                dial.solve(0);
+                long dialTime = System.nanoTime() - begin;
+                int last = grid.size() - 1;
+                if (graph.getVertex(grid.cell(last)).dist != dial.distance(last)) {
+                    throw new IllegalStateException("Dial's algorithm disagrees with Graph.dijkstra");
+                }
+                if (round >= WARMUP_ROUNDS) {
+                    dijkstraTimes[round - WARMUP_ROUNDS] = dijkstra;
+                    dialTimes[round - WARMUP_ROUNDS] = dialTime;
+                }
+            }
+            report("Graph.dijkstra, open grid, costs 1-" + highestCost, size + " x " + size, dijkstraTimes);
+            report("Dial's algorithm, open grid, costs 1-" + highestCost, size + " x " + size, dialTimes);
+        }
+    }
+
+    /**
+     * Makes sure that weighted mode only changes the costs: the same seed has to carve the
+     * same passages with and without terrain, whether the terrain is set before generating
+     * or afterwards.
+     */
+    private static void checkTerrainKeepsLayout() {
+        List<Consumer<Maze>> generators = List.of(Maze::createMazePrims, Maze::createMazeKruskal,
+                Maze::createMazeWilson, Maze::createMazeRecursiveBacktracker, Maze::createMazeRecursiveDivision);
+        for (Consumer<Maze> generator : generators) {
+            Maze plain = new Maze(60, 60, false, 42L);
+            plain.setQuiet(true);
+            generator.accept(plain);
+            Maze weighted = new Maze(60, 60, false, 42L);
+            weighted.setQuiet(true);
+            weighted.setTerrain(20);
+            generator.accept(weighted);
+            Maze later = new Maze(60, 60, false, 42L);
+            later.setQuiet(true);
+            generator.accept(later);
+            later.setTerrain(20);
+            generator.accept(later);
+            byte[] passages = plain.grid.toByteArray();
+            if (!Arrays.equals(passages, weighted.grid.toByteArray())
+                    || !Arrays.equals(passages, later.grid.toByteArray())) {
+                throw new IllegalStateException("Weighted mode changed the maze carved from the same seed");
+            }
+        }
+    }
+
+    /**
+     * Times batches of 25 by 25 mazes, the size Main uses, on pools of one thread up to one
+     * per core. The mazes are generated and solved, as MazeBatch returns them.
+     */
+    private static void benchmarkBatch() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int mazes = 10_000;
+        List<MazeSpec> specs = new ArrayList<MazeSpec>(mazes);
+        for (int i = 0; i < mazes; i++) {
+            specs.add(new MazeSpec(25, 25, MazeAlgorithm.RECURSIVE_BACKTRACKER, i));
+        }
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            long[] times = new long[MEASURED_ROUNDS];
+            try (MazeBatch batch = new MazeBatch(threads)) {
+                for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                    long begin = System.nanoTime();
+                    // Count the cells, a plain count() of a sized stream would not generate anything
+                    long cells = batch.generate(specs).mapToLong(maze -> maze.grid.size()).sum();
+                    long elapsed = System.nanoTime() - begin;
+                    if (cells != 25L * 25 * mazes) {
+                        throw new IllegalStateException("Expected " + mazes + " mazes but got " + cells + " cells");
+                    }
+                    if (round >= WARMUP_ROUNDS) {
+                        times[round - WARMUP_ROUNDS] = elapsed;
+                    }
+                }
+            }
+            report("Batch of 25 x 25 (" + threads + " threads)", mazes + " mazes", times);
+        }
+    }
+
+    /**
+     * Walks a player through a chunked world in a straight line so that every step needs a
+     * new chunk, and reports the time to generate one chunk and the chunks left in memory.
+     */
+    private static void benchmarkWorld() {
+        for (MazeAlgorithm algorithm : new MazeAlgorithm[] {MazeAlgorithm.RECURSIVE_BACKTRACKER,
+                MazeAlgorithm.KRUSKAL, MazeAlgorithm.SIDEWINDER}) {
+            MazeWorld world = new MazeWorld(42L, MazeWorld.DEFAULT_CHUNK_SIZE, algorithm, 64);
+            int chunks = 20_000;
+            long[] times = new long[chunks];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                long begin = System.nanoTime();
+                world.chunk(chunk, chunk / 2);
+                times[chunk] = System.nanoTime() - begin;
+            }
+            // Leave the first half out as warm up
+            long[] measured = Arrays.copyOfRange(times, chunks / 2, chunks);
+            report("World chunk, " + algorithm + " (" + world.getCachedChunks() + " cached)",
+                    MazeWorld.DEFAULT_CHUNK_SIZE + " x " + MazeWorld.DEFAULT_CHUNK_SIZE, measured);
+        }
+    }
+
+    /**
+     * Times a generator on a fresh square maze of the given size and prints the median.
+     *
+     * @param name The name of the algorithm.
+     * @param size The width and depth of the maze.
+     * @param generator Carves a maze into the grid of the given maze.
+     */
+    private static void measureGeneration(String name, int size, Consumer<Maze> generator) {
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Maze maze = newQuietMaze(size);
+            long begin = System.nanoTime();
+            generator.accept(maze);
+            long elapsed = System.nanoTime() - begin;
+            if (round >= WARMUP_ROUNDS) {
+                times[round - WARMUP_ROUNDS] = elapsed;
+            }
+        }
+        report(name, size + " x " + size, times);
+    }
+
+    /**
+     * Creates a square maze that does not print anything.
+     */
+    private static Maze newQuietMaze(int size) {
+        Maze maze = new Maze(size, size, false);
+        maze.setQuiet(true);
+        return maze;
+    }
+
+    /**
+     * Prints the median and the best of the measured times.
+     */
+    private static void report(String name, String size, long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.out.println(String.format("%-44s %-16s median %10.2f ms   best %10.2f ms",
+                name, size, sorted[sorted.length / 2] / NANOS_PER_MILLI, sorted[0] / NANOS_PER_MILLI));
+    }
+}
@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JFrame;
@@ -99,6 +100,20 @@ public class MazeGUI extends JFrame implements ActionListener {
 
 	private static final String COMMAND_CREATE_RECURSIVE_BACKTRACK_STACK = "Recursive Backtracker";
 
+	private static final String COMMAND_CREATE_KRUSKAL = "Kruskal's Algorithm";
+
+	private static final String COMMAND_CREATE_WILSON = "Wilson's Algorithm";
+
+	private static final String COMMAND_CREATE_RECURSIVE_DIVISION = "Recursive Division";
+
+	private static final String COMMAND_CREATE_BINARY_TREE = "Binary Tree";
+
+	private static final String COMMAND_CREATE_SIDEWINDER = "Sidewinder";
+
+	private static final String COMMAND_CREATE_GROWING_TREE = "Growing Tree";
+
+	private static final String COMMAND_CREATE_HUNT_AND_KILL = "Hunt and Kill";
+
 
 	/** The stroke used for painting. vertexis */
 	private static final BasicStroke STROKE = new BasicStroke(SQUARE_SIZE/4, BasicStroke.CAP_SQUARE,
@@ -135,10 +150,10 @@ public class MazeGUI extends JFrame implements ActionListener {
 	boolean isMazeGenerated = false;
 	boolean isAnimating = false;
 
-	Queue<Vertex<Cell>> vertexPrinterQueue;
+	Queue<Cell> cellPrinterQueue;
 	LinkedList<Vertex<Cell>> vertexSolutionPrinterQueue;
 
-	private ArrayList<Vertex<Cell>> vertexPrinter;
+	private ArrayList<Cell> cellPrinter;
 
 	private ArrayList<Vertex<Cell>> vertexSolutionPrinter;
 
@@ -152,14 +167,14 @@ public class MazeGUI extends JFrame implements ActionListener {
 		super("The amazing maze generator!");
 		this.maze = maze;
 		debugFlag = maze.debug;
-		vertexPrinter = new ArrayList<Vertex<Cell>>();
+		cellPrinter = new ArrayList<Cell>();
 		vertexSolutionPrinter = new ArrayList<Vertex<Cell>>();
 		myDelay = MY_DELAY_NUMERATOR / INITIAL_FRAMES_PER_SECOND;
 		myTimer = new Timer(myDelay, this);
 
 		SQUARE_SIZE = SCREEN_SIZE.height/4/maze.depth*2+1;
 		// 1800*.25/(5*2+1)
-		vertexPrinterQueue = new LinkedList<Vertex<Cell>>();
+		cellPrinterQueue = new LinkedList<Cell>();
 		vertexSolutionPrinterQueue = new LinkedList<Vertex<Cell>>();
 		initializeGUI();
 		MAX_NUMBER_OF_STEPS = Integer.MAX_VALUE;
@@ -190,6 +205,13 @@ public class MazeGUI extends JFrame implements ActionListener {
 		buttonPanel.add(makeButton(COMMAND_CREATE_PRIM_HORIZONTAL_BIAS));
 		buttonPanel.add(makeButton(COMMAND_CREATE_RECURSIVE_BACKTRACK_STACK));
 		buttonPanel.add(makeButton(COMMAND_CREATE_RECURSIVE_DEPTH_FIRST));
+		buttonPanel.add(makeButton(COMMAND_CREATE_KRUSKAL));
+		buttonPanel.add(makeButton(COMMAND_CREATE_WILSON));
+		buttonPanel.add(makeButton(COMMAND_CREATE_RECURSIVE_DIVISION));
+		buttonPanel.add(makeButton(COMMAND_CREATE_BINARY_TREE));
+		buttonPanel.add(makeButton(COMMAND_CREATE_SIDEWINDER));
+		buttonPanel.add(makeButton(COMMAND_CREATE_GROWING_TREE));
+		buttonPanel.add(makeButton(COMMAND_CREATE_HUNT_AND_KILL));
 
 
 		final Container southPanel = new JPanel(new FlowLayout());
@@ -321,6 +343,41 @@ public class MazeGUI extends JFrame implements ActionListener {
 				maze.createMazeDepthFirstRecursive();
 				isAnimating = true;
 				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_KRUSKAL)) {
+				reset();
+				maze.createMazeKruskal();
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_WILSON)) {
+				reset();
+				maze.createMazeWilson();
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_RECURSIVE_DIVISION)) {
+				reset();
+				maze.createMazeRecursiveDivision();
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_BINARY_TREE)) {
+				reset();
+				maze.createMazeBinaryTree();
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_SIDEWINDER)) {
+				reset();
+				maze.createMazeSidewinder();
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_GROWING_TREE)) {
+				reset();
+				maze.createMazeGrowingTree(GrowingTreeStrategy.MIXED);
+				isAnimating = true;
+				myTimer.start();
+			} else if (command.equals(COMMAND_CREATE_HUNT_AND_KILL)) {
+				reset();
+				maze.createMazeHuntAndKill();
+				isAnimating = true;
+				myTimer.start();
 			}
 
 		}
@@ -332,8 +389,8 @@ public class MazeGUI extends JFrame implements ActionListener {
 	 */
 	private void advanceAnimation() {
 		if (isMazeRecieved) {
-			if(!vertexPrinterQueue.isEmpty()) {
-				vertexPrinter.add(vertexPrinterQueue.poll());
+			if(!cellPrinterQueue.isEmpty()) {
+				cellPrinter.add(cellPrinterQueue.poll());
 			} else {
 				isMazeGenerated = true;
 			}
@@ -353,11 +410,13 @@ public class MazeGUI extends JFrame implements ActionListener {
 	 * counter, and stops the simulation.
 	 */
 	private void reset() {
+		// Every maze the user asks for should be a new one
+		maze.setSeed(ThreadLocalRandom.current().nextLong());
 		myTimer.stop();
 		isAnimating = false;
 		isMazeGenerated = false;
-		vertexPrinter.clear();
-		vertexPrinterQueue.clear();
+		cellPrinter.clear();
+		cellPrinterQueue.clear();
 		vertexSolutionPrinterQueue.clear();
 		vertexSolutionPrinter.clear();
 		mazePanel.initializePanel();
@@ -444,18 +503,17 @@ public class MazeGUI extends JFrame implements ActionListener {
 			// #########################################################
 			// ##                 Draw the walls
 			// #########################################################
-			if (isMazeRecieved && !vertexPrinter.isEmpty()) {
-				while (!vertexPrinter.isEmpty()) {
-					Vertex<Cell> currentVertex = vertexPrinter.remove(0);
-					if (currentVertex != null) {
+			if (isMazeRecieved && !cellPrinter.isEmpty()) {
+				while (!cellPrinter.isEmpty()) {
+					Cell currentCell = cellPrinter.remove(0);
+					if (currentCell != null) {
 						// Ordinate ourselves with the coordin8tes            
-						final int topy = (currentVertex.value.getY() * SQUARE_SIZE);
+						final int topy = (currentCell.getY() * SQUARE_SIZE);
 						final int bottomy = topy + SQUARE_SIZE;
-						final int leftx = currentVertex.value.getX() * SQUARE_SIZE;
+						final int leftx = currentCell.getX() * SQUARE_SIZE;
 						final int rightx = leftx + SQUARE_SIZE;
 
-						Cell currentCell = new Cell(currentVertex.value.getX(), currentVertex.value.getY());
-						drawWall(g2, topy, bottomy, leftx, rightx, currentCell, currentVertex);
+						drawWall(g2, topy, bottomy, leftx, rightx, currentCell);
 					}
 				}
 			}// End of draw a single vertex
@@ -522,30 +580,26 @@ public class MazeGUI extends JFrame implements ActionListener {
 		}
 
 		private void drawWall(final Graphics2D g2, final int topy, final int bottomy,
-				final int leftx, final int rightx, Cell currentCell,
-				Vertex<Cell> currentVertex) {
+				final int leftx, final int rightx, Cell currentCell) {
 			// Create a buffered image to draw the lines (walls) on
 			Graphics2D gc = buffimage.createGraphics();
 			gc.setColor(COLOR_WALL);
 			gc.setStroke(STROKE);
-			Cell northNeighbor = maze.getNorthNeighbor(currentCell);
-			Cell eastNeighbor = maze.getEastNeighbor(currentCell);
-			Cell southNeighbor = maze.getSouthNeighbor(currentCell);
-			Cell westNeighbor = maze.getWestNeighbor(currentCell);
+			final int id = maze.grid.id(currentCell);
 
-			if(northNeighbor == null || currentVertex == null || !maze.graph.isAdjacent(currentCell, northNeighbor)) {
+			if(!maze.grid.isOpen(id, WallGrid.NORTH)) {
 				Shape line = new Line2D.Double(leftx, topy, rightx, topy);
 				gc.draw(line);
 			}
-			if(eastNeighbor == null || currentVertex == null || !currentVertex.containsEdge(currentCell, eastNeighbor)) {
+			if(!maze.grid.isOpen(id, WallGrid.EAST)) {
 				Shape line = new Line2D.Double(rightx, topy, rightx, bottomy);
 				gc.draw(line);
 			} 
-			if(southNeighbor == null || currentVertex == null || !currentVertex.containsEdge(currentCell, southNeighbor)) {
+			if(!maze.grid.isOpen(id, WallGrid.SOUTH)) {
 				Shape line = new Line2D.Double(leftx, bottomy, rightx, bottomy);
 				gc.draw(line);
 			} 
-			if(westNeighbor == null || currentVertex == null || !currentVertex.containsEdge(currentCell, westNeighbor)) {
+			if(!maze.grid.isOpen(id, WallGrid.WEST)) {
 				Shape line = new Line2D.Double(leftx, topy, leftx, bottomy);
 				gc.draw(line);
 			}
@@ -590,15 +644,12 @@ public class MazeGUI extends JFrame implements ActionListener {
 				}
 			}
 
-			if (arg instanceof Vertex) {
-				if (isSolution) {
-					Vertex<Cell> vertex = (Vertex<Cell>) arg;
-					vertexSolutionPrinterQueue.offer(vertex);
-					isSolution = false;
-				} else {
-					Vertex<Cell> vertex = (Vertex<Cell>) arg;
-					vertexPrinterQueue.offer(vertex);
-				}
+			if (arg instanceof Vertex && isSolution) {
+				Vertex<Cell> vertex = (Vertex<Cell>) arg;
+				vertexSolutionPrinterQueue.offer(vertex);
+				isSolution = false;
+			} else if (arg instanceof Cell) {
+				cellPrinterQueue.offer((Cell) arg);
 			}
 		}
 
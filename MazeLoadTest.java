@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * A load test client for {@link MazeServer}.<br>
+ * A number of client threads send requests as fast as the server answers them and the
+ * latency of every request is recorded. The 50th and 99th percentile latencies and the
+ * requests per second are printed at the end. Requests cycle through a fixed number of
+ * seeds, so a small number of seeds exercises the cache and the coalescing of identical
+ * requests, and a large number mostly measures generation.
+ * </p>
+ * <p>
+ * Run with <code>java MazeLoadTest [url] [clients] [requests] [seeds] [size]</code>. Without a
+ * url, or with the url <code>embedded</code>, a server is started in this process on a
+ * free port of the loopback address.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeLoadTest {
+
+    /** The number of nanoseconds in one millisecond. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Runs the load test.
+     * @param args The optional url, clients, requests, seeds and maze size.
+     * @throws Exception if the server can not be started or a request fails.
+     */
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "embedded";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int seeds = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+        int size = args.length > 4 ? Integer.parseInt(args[4]) : 25;
+
+        MazeServer embedded = null;
+        if (url.equals("embedded")) {
+            embedded = new MazeServer(0, Runtime.getRuntime().availableProcessors(), 1024, 4096);
+            embedded.start();
+            url = "http://127.0.0.1:" + embedded.getPort() + MazeServer.PATH;
+        }
+        try {
+            run(url, clients, requests, seeds, size);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    /**
+     * Sends the requests from the given number of client threads and prints the results.
+     */
+    private static void run(String url, int clients, int requests, int seeds, int size)
+            throws InterruptedException, ExecutionException {
+        HttpClient client = HttpClient.newHttpClient();
+        long[] latencies = new long[requests];
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>(clients);
+        for (int c = 0; c < clients; c++) {
+            final int first = c;
+            tasks.add(() -> {
+                int failures = 0;
+                // Each client sends every clients-th request
+                for (int i = first; i < requests; i += clients) {
+                    URI uri = URI.create(url + "?rows=" + size + "&columns=" + size + "&seed=" + (i % seeds));
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) {
+                            failures++;
+                        }
+                    } catch (IOException e) {
+                        failures++;
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return failures;
+            });
+        }
+        long begin = System.nanoTime();
+        int failures = 0;
+        for (Future<Integer> result : pool.invokeAll(tasks)) {
+            failures += result.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.println(String.format("%d requests from %d clients over %d seeds of %d x %d mazes",
+                requests, clients, seeds, size, size));
+        System.out.println(String.format("p50 %.2f ms   p99 %.2f ms   max %.2f ms",
+                percentile(latencies, 50) / NANOS_PER_MILLI, percentile(latencies, 99) / NANOS_PER_MILLI,
+                latencies[latencies.length - 1] / NANOS_PER_MILLI));
+        System.out.println(String.format("%.0f requests per second, %d failed",
+                requests / (elapsed / 1e9), failures));
+    }
+
+    /**
+     * Returns the given percentile of sorted values using the nearest rank.
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
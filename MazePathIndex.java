@@ -0,0 +1,167 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Answers distance and path queries between any two cells of a perfect maze without
+ * searching.<br>
+ * A perfect maze is a tree, so the path between two cells goes up from each of them to
+ * their lowest common ancestor. The index roots the tree at one cell with a breadth first
+ * search and keeps the parent and depth of every cell. The ancestor is found by binary
+ * lifting, with a single jump pointer per cell instead of a table of every power of two:
+ * each jump skips a number of levels that makes any ancestor reachable in O(log n) jumps,
+ * and the index stays at three <code>int</code>s per cell however large the maze is.
+ * </p>
+ * <p>
+ * The index is a snapshot of the grid; it has to be built again after the maze changes.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazePathIndex {
+
+    private final WallGrid grid;
+
+    /* The parent of every cell, the root is its own parent. */
+    private final int[] parent;
+
+    /* The number of passages between every cell and the root. */
+    private final int[] depth;
+
+    /* An ancestor of every cell that is a power of two shaped number of levels up. */
+    private final int[] jump;
+
+    /**
+     * Builds the index of a perfect maze.
+     * @param grid The passages of the maze.
+     * @throws IllegalArgumentException if the maze has a loop or cells that can not be reached.
+     */
+    public MazePathIndex(WallGrid grid) {
+        this.grid = grid;
+        int size = grid.size();
+        parent = new int[size];
+        depth = new int[size];
+        jump = new int[size];
+        Arrays.fill(depth, -1);
+        // The breadth first order reaches every parent before its children, which the jumps need
+        int[] order = new int[size];
+        int directions = grid.directions();
+        int head = 0;
+        int tail = 0;
+        order[tail++] = 0;
+        depth[0] = 0;
+        parent[0] = 0;
+        jump[0] = 0;
+        while (head < tail) {
+            int cell = order[head++];
+            for (int direction = 0; direction < directions; direction++) {
+                if (!grid.isOpen(cell, direction)) {
+                    continue;
+                }
+                int child = grid.neighbor(cell, direction);
+                if (child == parent[cell]) {
+                    continue;
+                }
+                if (depth[child] >= 0) {
+                    throw new IllegalArgumentException("The maze has a loop through cell " + grid.cell(child));
+                }
+                depth[child] = depth[cell] + 1;
+                parent[child] = cell;
+                jump[child] = jumpFor(cell);
+                order[tail++] = child;
+            }
+        }
+        if (tail != size) {
+            throw new IllegalArgumentException("Only " + tail + " of " + size + " cells are connected");
+        }
+    }
+
+    /**
+     * Returns the jump of a child of the given cell. When the jump of the parent and the
+     * jump after it cover the same number of levels, the child jumps over both, otherwise
+     * it jumps to its parent. The lengths of the jumps up any chain are then the digits of
+     * a skew binary number, so O(log n) jumps reach any depth.
+     */
+    private int jumpFor(int cell) {
+        int first = jump[cell];
+        int second = jump[first];
+        if (depth[cell] - depth[first] == depth[first] - depth[second]) {
+            return second;
+        }
+        return cell;
+    }
+
+    public WallGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the number of passages between the cell and the root of the index, the
+     * first cell of the grid.
+     */
+    public int depth(int id) {
+        return depth[id];
+    }
+
+    /**
+     * Returns the ancestor of the cell at the given depth.
+     * @param id The packed id of the cell.
+     * @param targetDepth A depth between zero and the depth of the cell.
+     */
+    public int ancestor(int id, int targetDepth) {
+        while (depth[id] > targetDepth) {
+            id = depth[jump[id]] >= targetDepth ? jump[id] : parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Returns the lowest common ancestor of two cells, which is the cell on their path that
+     * is closest to the root.
+     */
+    public int commonAncestor(int a, int b) {
+        if (depth[a] > depth[b]) {
+            a = ancestor(a, depth[b]);
+        } else {
+            b = ancestor(b, depth[a]);
+        }
+        // Cells at the same depth have jumps of the same length, so they climb in step
+        while (a != b) {
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = parent[a];
+                b = parent[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns the number of passages on the path between two cells in O(log n).
+     */
+    public int distance(int from, int to) {
+        return depth[from] + depth[to] - 2 * depth[commonAncestor(from, to)];
+    }
+
+    /**
+     * Returns the path between two cells, in time proportional to its length plus O(log n).
+     * @return the ids of the cells on the path in order from the first cell to the second.
+     */
+    public int[] path(int from, int to) {
+        int top = commonAncestor(from, to);
+        int up = depth[from] - depth[top];
+        int[] path = new int[up + depth[to] - depth[top] + 1];
+        int cell = from;
+        for (int i = 0; i <= up; i++) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        cell = to;
+        for (int i = path.length - 1; i > up; i--) {
+            path[i] = cell;
+            cell = parent[cell];
+        }
+        return path;
+    }
+}
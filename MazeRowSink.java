@@ -0,0 +1,30 @@
+import java.io.IOException;
+
+/**
+ * <p>
+ * Receives a maze one finished row at a time.<br>
+ * Row generators call {@link #acceptRow(long, boolean[], boolean[])} for every row from
+ * top to bottom and {@link #finish()} once after the last row. The arrays are reused by
+ * the generator for the next row, so a sink that needs them later must copy them.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public interface MazeRowSink {
+
+    /**
+     * Accepts the passages of one row.
+     *
+     * @param row The index of the row starting at zero.
+     * @param eastPassages True at index x when cell x is open to its east neighbor.
+     * @param southPassages True at index x when cell x is open to the cell below it.
+     * @throws IOException if the row could not be written.
+     */
+    void acceptRow(long row, boolean[] eastPassages, boolean[] southPassages) throws IOException;
+
+    /**
+     * Called once after the last row has been accepted.
+     * @throws IOException if the sink could not be finished.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,341 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * <p>
+ * A small HTTP server that generates mazes for other processes on the same machine.<br>
+ * <code>GET /maze?rows=25&amp;columns=25&amp;algorithm=kruskal&amp;seed=42</code> answers with the
+ * passages of the maze in the compact form of {@link WallGrid#toByteArray()}. The size,
+ * start, finish and seed are sent as <code>X-Maze-*</code> headers. Every parameter is
+ * optional: the size defaults to 25 by 25, the algorithm to the recursive backtracker and
+ * the seed to a random one. <code>startX</code>, <code>startY</code>, <code>finishX</code>
+ * and <code>finishY</code> choose the start and finish cells.
+ * </p>
+ * <p>
+ * Mazes are generated on a fixed number of worker threads with a bounded queue; when the
+ * queue is full the server answers 503 instead of piling up work. Generation is reproducible,
+ * so identical requests that arrive while a maze is being generated wait for that one maze,
+ * and recently generated mazes are answered from a small cache.
+ * </p>
+ * <p>
+ * The server only listens on the loopback address. Run it with
+ * <code>java MazeServer [port] [workers]</code>.<br>
+ * Headers and body are written separately, so without TCP_NODELAY the body of every small
+ * response waits for the delayed acknowledgement of the headers (about 40 ms).
+ * {@link #main(String[])} turns it on unless <code>-Dsun.net.httpserver.nodelay</code> is
+ * given on the command line; processes that embed the server should pass that flag.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeServer implements AutoCloseable {
+
+    /** The path mazes are served from. */
+    public static final String PATH = "/maze";
+
+    /** The default port. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** The largest maze that will be generated, in cells. */
+    static final long MAX_CELLS = 1L << 24;
+
+    /** The size used when a request does not give one, the same as Main. */
+    private static final int DEFAULT_SIZE = 25;
+
+    /** The smallest number of rows or columns, the same as Maze. */
+    static final int MIN_SIZE = 4;
+
+    private final HttpServer server;
+
+    /* Accepts requests and waits for their mazes. */
+    private final ExecutorService handlers;
+
+    /* Generates the mazes. */
+    private final ThreadPoolExecutor workers;
+
+    /* The mazes being generated right now, so identical requests share one generation. */
+    private final ConcurrentHashMap<MazeSpec, CompletableFuture<Result>> inFlight =
+            new ConcurrentHashMap<MazeSpec, CompletableFuture<Result>>();
+
+    /* Recently generated mazes. */
+    private final LruCache<MazeSpec, Result> cache;
+
+    /**
+     * Creates a server on the loopback address. It does not accept requests until
+     * {@link #start()} is called.
+     *
+     * @param port The port to listen on, or zero for any free port.
+     * @param workers The number of threads generating mazes.
+     * @param queueCapacity The most mazes waiting for a worker before requests are refused.
+     * @param cacheCapacity The number of generated mazes to keep.
+     * @throws IOException if the port can not be bound.
+     */
+    public MazeServer(int port, int workers, int queueCapacity, int cacheCapacity) throws IOException {
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), daemonThreads("maze-worker"));
+        // Handlers mostly wait for a worker, so there are more of them
+        handlers = Executors.newFixedThreadPool(workers * 4 + 4, daemonThreads("maze-http"));
+        cache = new LruCache<MazeSpec, Result>(cacheCapacity);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(handlers);
+        server.createContext(PATH, this::handle);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on, which is useful when it was created with port zero.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server and its threads.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Returns the maze for the spec from the cache, from a generation that is already
+     * running, or from a new generation.
+     *
+     * @throws RejectedExecutionException through the future when the queue is full.
+     */
+    CompletableFuture<Result> mazeFor(MazeSpec spec) {
+        Result cached = cache.get(spec);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Result> created = new CompletableFuture<Result>();
+        CompletableFuture<Result> running = inFlight.putIfAbsent(spec, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    Result result = new Result(spec.generate());
+                    // Cache before leaving inFlight so a new request always finds one of them
+                    cache.put(spec, result);
+                    created.complete(result);
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(spec, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(spec, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            MazeSpec spec;
+            try {
+                spec = parseSpec(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            Result result;
+            try {
+                result = mazeFor(spec).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendError(exchange, 503, "The server is shutting down");
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    sendError(exchange, 503, "Too many mazes are waiting to be generated");
+                } else {
+                    sendError(exchange, 500, "Failed to generate the maze: " + e.getCause());
+                }
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.getResponseHeaders().set("X-Maze-Columns", Integer.toString(result.columns));
+            exchange.getResponseHeaders().set("X-Maze-Rows", Integer.toString(result.rows));
+            exchange.getResponseHeaders().set("X-Maze-Start", result.start);
+            exchange.getResponseHeaders().set("X-Maze-Finish", result.finish);
+            exchange.getResponseHeaders().set("X-Maze-Seed", Long.toString(spec.getSeed()));
+            exchange.sendResponseHeaders(200, result.passages.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(result.passages);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads a spec from the query string of a request.
+     * @throws IllegalArgumentException if a parameter is malformed or the maze is too large.
+     */
+    static MazeSpec parseSpec(String rawQuery) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        int rows = intParameter(parameters, "rows", DEFAULT_SIZE);
+        int columns = intParameter(parameters, "columns", DEFAULT_SIZE);
+        if (rows < MIN_SIZE || columns < MIN_SIZE) {
+            throw new IllegalArgumentException("The maze must have at least " + MIN_SIZE + " rows and "
+                    + MIN_SIZE + " columns");
+        }
+        if ((long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("The maze must have at most " + MAX_CELLS + " cells");
+        }
+        MazeAlgorithm algorithm = MazeAlgorithm.RECURSIVE_BACKTRACKER;
+        String name = parameters.get("algorithm");
+        if (name != null) {
+            try {
+                algorithm = MazeAlgorithm.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown algorithm: " + name);
+            }
+        }
+        long seed;
+        String seedValue = parameters.get("seed");
+        if (seedValue == null) {
+            seed = ThreadLocalRandom.current().nextLong();
+        } else {
+            try {
+                seed = Long.parseLong(seedValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("seed is not a number: " + seedValue);
+            }
+        }
+        int startX = coordinate(parameters, "startX", columns);
+        int startY = coordinate(parameters, "startY", rows);
+        int finishX = coordinate(parameters, "finishX", columns);
+        int finishY = coordinate(parameters, "finishY", rows);
+        return new MazeSpec(rows, columns, algorithm, startX, startY, finishX, finishY, seed);
+    }
+
+    /**
+     * Reads a coordinate that has to lie inside the maze, zero if it is not given.
+     * @param limit The number of columns or rows.
+     */
+    private static int coordinate(Map<String, String> parameters, String name, int limit) {
+        int value = intParameter(parameters, name, 0);
+        if (value < 0 || value >= limit) {
+            throw new IllegalArgumentException(name + " must be between 0 and " + (limit - 1) + ": " + value);
+        }
+        return value;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name, int defaultValue) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Starts a server and keeps running until the process is stopped.
+     * @param args The optional port and number of workers.
+     * @throws IOException if the port can not be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        // Only set here so that embedding the server does not change a property of the whole JVM
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        MazeServer server = new MazeServer(port, workers, 1024, 4096);
+        server.start();
+        System.out.println("Serving mazes on http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getPort() + PATH);
+    }
+
+    /**
+     * A generated maze in the form it is sent in.
+     */
+    static final class Result {
+
+        final int rows;
+
+        final int columns;
+
+        final String start;
+
+        final String finish;
+
+        final byte[] passages;
+
+        Result(Maze maze) {
+            rows = maze.depth;
+            columns = maze.width;
+            start = maze.mazeStart.getX() + "," + maze.mazeStart.getY();
+            finish = maze.mazeFinish.getX() + "," + maze.mazeFinish.getY();
+            passages = maze.grid.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Finds shortest paths through the passages of a {@link WallGrid} with a breadth first search.<br>
+ * Every passage of a maze has the same cost, so cells leave a plain first in first out queue
+ * in order of their distance and no priority queue is needed. The queue, the distances and the
+ * parents are <code>int</code> arrays indexed by packed cell ids that are allocated once and
+ * reused by every search, so solving a maze again allocates nothing.
+ * </p>
+ * <p>
+ * The distances and parents are the same as those {@link Graph#dijkstra(Object)} computes on
+ * {@link WallGrid#toGraph()}: in a perfect maze the path between two cells is unique.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeSolver {
+
+    /** The distance of a cell that can not be reached from the start. */
+    public static final int UNREACHABLE = -1;
+
+    /** The parent of the start and of cells that were not reached. */
+    public static final int NO_PARENT = -1;
+
+    private final WallGrid grid;
+
+    /* Cells waiting to be expanded. Every cell enters at most once, so it never wraps. */
+    private final int[] queue;
+
+    /* Passages from the start to every reached cell. */
+    private final int[] dist;
+
+    /* The cell every reached cell was first reached from. */
+    private final int[] prev;
+
+    /* The start of the last search, or -1 before the first one. */
+    private int start = -1;
+
+    /**
+     * Creates a solver for the given grid. The grid may be carved again between searches.
+     * @param grid The passages to search.
+     */
+    public MazeSolver(WallGrid grid) {
+        this.grid = grid;
+        queue = new int[grid.size()];
+        dist = new int[grid.size()];
+        prev = new int[grid.size()];
+    }
+
+    public WallGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Computes the distance and parent of every cell reachable from the start.
+     * @param start The packed id of the start cell.
+     */
+    public void solve(int start) {
+        search(start, -1);
+    }
+
+    /**
+     * Searches from the start until the finish is reached. The distances and parents of the
+     * cells on the path to the finish are final, cells further away than the finish may
+     * not have been reached.
+     * @param start The packed id of the start cell.
+     * @param finish The packed id of the cell to stop at.
+     * @return the number of passages between start and finish or {@link #UNREACHABLE}.
+     */
+    public int solve(int start, int finish) {
+        search(start, finish);
+        return dist[finish];
+    }
+
+    /**
+     * Returns the number of passages from the start of the last search to the cell.
+     */
+    public int distance(int id) {
+        return dist[id];
+    }
+
+    /**
+     * Returns the cell the given cell was reached from in the last search.
+     */
+    public int previous(int id) {
+        return prev[id];
+    }
+
+    /**
+     * Returns the start of the last search, or -1 if nothing has been solved yet.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Follows the parents of the last search from the finish back to the start.
+     * @param finish The packed id of the last cell of the path.
+     * @return the ids of the cells on the path in order from start to finish, or null if
+     * the finish was not reached.
+     */
+    public int[] path(int finish) {
+        if (dist[finish] == UNREACHABLE) {
+            return null;
+        }
+        int[] path = new int[dist[finish] + 1];
+        int cell = finish;
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = prev[cell];
+        }
+        return path;
+    }
+
+    /**
+     * Breadth first search from the start, stopping early once the target leaves the queue.
+     * @param target The cell to stop at or -1 to reach every cell.
+     */
+    private void search(int start, int target) {
+        this.start = start;
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(prev, NO_PARENT);
+        int directions = grid.directions();
+        int head = 0;
+        int tail = 0;
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == target) {
+                return;
+            }
+            int next = dist[cell] + 1;
+            for (int direction = 0; direction < directions; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int neighbor = grid.neighbor(cell, direction);
+                    if (dist[neighbor] == UNREACHABLE) {
+                        dist[neighbor] = next;
+                        prev[neighbor] = cell;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+    }
+}
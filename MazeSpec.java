@@ -0,0 +1,127 @@
+import java.util.Objects;
+
+/**
+ * <p>
+ * Describes one maze to generate: its size, the algorithm, the start and finish locations
+ * and the seed.<br>
+ * Generation is reproducible, so two equal specs always describe the same maze. That makes
+ * a spec usable as the key of a cache of generated mazes.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public final class MazeSpec {
+
+    private final int rows;
+
+    private final int columns;
+
+    private final MazeAlgorithm algorithm;
+
+    private final int startX;
+
+    private final int startY;
+
+    private final int finishX;
+
+    private final int finishY;
+
+    private final long seed;
+
+    /**
+     * Creates a spec whose start and finish locations are chosen from the seed.
+     *
+     * @param rows The height of the maze.
+     * @param columns The width of the maze.
+     * @param algorithm The generation algorithm.
+     * @param seed The seed of the random number generator.
+     */
+    public MazeSpec(int rows, int columns, MazeAlgorithm algorithm, long seed) {
+        this(rows, columns, algorithm, 0, 0, 0, 0, seed);
+    }
+
+    /**
+     * Creates a spec with the given start and finish locations. When they are the same
+     * location both are chosen from the seed, like the Maze constructors do.
+     *
+     * @param rows The height of the maze.
+     * @param columns The width of the maze.
+     * @param algorithm The generation algorithm.
+     * @param startX The starting location x coordinate.
+     * @param startY The starting location y coordinate.
+     * @param finishX The finish location x coordinate.
+     * @param finishY The finish location y coordinate.
+     * @param seed The seed of the random number generator.
+     */
+    public MazeSpec(int rows, int columns, MazeAlgorithm algorithm,
+                    int startX, int startY, int finishX, int finishY, long seed) {
+        this.rows = rows;
+        this.columns = columns;
+        this.algorithm = Objects.requireNonNull(algorithm, "algorithm");
+        this.startX = startX;
+        this.startY = startY;
+        this.finishX = finishX;
+        this.finishY = finishY;
+        this.seed = seed;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public MazeAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates the maze described by this spec in quiet mode, without generating it.
+     */
+    public Maze newMaze() {
+        Maze maze = new Maze(rows, columns, false, startX, startY, finishX, finishY, seed);
+        maze.setQuiet(true);
+        return maze;
+    }
+
+    /**
+     * Creates and generates the maze described by this spec, including its solution.
+     * Nothing is printed and no observers are notified.
+     */
+    public Maze generate() {
+        Maze maze = newMaze();
+        algorithm.generate(maze);
+        return maze;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof MazeSpec)) {
+            return false;
+        }
+        MazeSpec spec = (MazeSpec) other;
+        return rows == spec.rows && columns == spec.columns && algorithm == spec.algorithm
+                && startX == spec.startX && startY == spec.startY
+                && finishX == spec.finishX && finishY == spec.finishY && seed == spec.seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, columns, algorithm, startX, startY, finishX, finishY, seed);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " " + rows + "x" + columns + " (" + startX + "," + startY + ")->("
+                + finishX + "," + finishY + ") seed " + seed;
+    }
+}
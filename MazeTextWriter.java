@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * Writes streamed maze rows as text using the same symbols as Maze.display().<br>
+ * <ul>
+ * <li>'X' represents a wall
+ * <li>'V' represents a cell of the maze.
+ * </ul>
+ * The entrance is left open in the top border above the start column and the exit in the
+ * bottom border below the finish column. Only the south passages of the previous row are
+ * remembered, so any number of rows can be written with memory proportional to the width.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeTextWriter implements MazeRowSink {
+
+    private static final String WALL = "X ";
+
+    private static final String PATH = "V ";
+
+    private static final String PADDING = "  ";
+
+    private final Writer out;
+
+    private final int width;
+
+    private final int startColumn;
+
+    private final int finishColumn;
+
+    /* The south passages of the previous row. */
+    private final boolean[] previousSouth;
+
+    /* A reusable buffer for one line of text. */
+    private final StringBuilder line;
+
+    /**
+     * Creates a writer for a maze of the given width.
+     *
+     * @param out Where the text is written.
+     * @param width The number of columns.
+     * @param startColumn The column of the entrance in the top border.
+     * @param finishColumn The column of the exit in the bottom border.
+     */
+    public MazeTextWriter(Writer out, int width, int startColumn, int finishColumn) {
+        this.out = out;
+        this.width = width;
+        this.startColumn = startColumn;
+        this.finishColumn = finishColumn;
+        previousSouth = new boolean[width];
+        line = new StringBuilder((width + 1) * 2 * WALL.length() + 1);
+    }
+
+    /**
+     * Creates a writer that encodes the text as UTF-8 onto the given channel.
+     */
+    public MazeTextWriter(WritableByteChannel channel, int width, int startColumn, int finishColumn) {
+        this(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1), width, startColumn, finishColumn);
+    }
+
+    @Override
+    public void acceptRow(long row, boolean[] eastPassages, boolean[] southPassages) throws IOException {
+        line.setLength(0);
+        line.append(WALL);
+        if (row == 0) {
+            appendBorder(startColumn);
+        } else {
+            for (int column = 0; column < width; column++) {
+                line.append(previousSouth[column] ? PADDING : WALL).append(WALL);
+            }
+        }
+        line.append('\n');
+
+        line.append(WALL);
+        for (int column = 0; column < width; column++) {
+            line.append(PATH).append(eastPassages[column] && column < width - 1 ? PADDING : WALL);
+        }
+        line.append('\n');
+        out.append(line);
+        System.arraycopy(southPassages, 0, previousSouth, 0, width);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        line.setLength(0);
+        line.append(WALL);
+        appendBorder(finishColumn);
+        line.append('\n');
+        out.append(line);
+        out.flush();
+    }
+
+    /**
+     * Appends a solid border with a single opening at the given column.
+     */
+    private void appendBorder(int openColumn) {
+        for (int column = 0; column < width; column++) {
+            line.append(column == openColumn ? PADDING : WALL).append(WALL);
+        }
+    }
+}
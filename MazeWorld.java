@@ -0,0 +1,224 @@
+import java.util.Objects;
+
+/**
+ * <p>
+ * A maze without bounds, made of square chunks that are generated when they are needed.<br>
+ * Every chunk is a perfect maze carved by one of the {@link MazeAlgorithm}s from a seed
+ * derived from the world seed and the coordinates of the chunk. Two neighboring chunks are
+ * joined by exactly one opening in the wall between them, whose position is derived the same
+ * way, so a chunk can be generated without looking at its neighbors and the whole world is
+ * connected.
+ * </p>
+ * <p>
+ * Chunks are kept in a cache of a fixed number of chunks. A chunk that has been forgotten
+ * is generated again, identically, the next time it is needed, so memory stays flat however
+ * far the world is explored.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class MazeWorld {
+
+    /** The default width and depth of a chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+
+    /* Salts that keep the hashes of chunks and of their two boundaries apart. */
+    private static final long CHUNK_SALT = 0x5DEECE66DL;
+
+    private static final long EAST_SALT = 0x2545F4914F6CDD1DL;
+
+    private static final long SOUTH_SALT = 0x632BE59BD9B4E019L;
+
+    private final long seed;
+
+    private final int chunkSize;
+
+    private final MazeAlgorithm algorithm;
+
+    /* Recently used chunks by their chunk coordinates. */
+    private final LruCache<ChunkKey, WallGrid> chunks;
+
+    /* The number of chunks generated so far, including chunks generated again. */
+    private long generatedChunks;
+
+    /**
+     * Creates a world of 64 by 64 chunks carved with the recursive backtracker.
+     *
+     * @param seed The seed of the world.
+     * @param cacheCapacity The number of chunks kept in memory.
+     */
+    public MazeWorld(long seed, int cacheCapacity) {
+        this(seed, DEFAULT_CHUNK_SIZE, MazeAlgorithm.RECURSIVE_BACKTRACKER, cacheCapacity);
+    }
+
+    /**
+     * Creates a world.
+     *
+     * @param seed The seed of the world. The same seed always gives the same world.
+     * @param chunkSize The width and depth of a chunk, at least 4.
+     * @param algorithm The algorithm that carves every chunk.
+     * @param cacheCapacity The number of chunks kept in memory.
+     */
+    public MazeWorld(long seed, int chunkSize, MazeAlgorithm algorithm, int cacheCapacity) {
+        if (chunkSize < 4) {
+            throw new IllegalArgumentException("Chunks must be at least 4 cells wide: " + chunkSize);
+        }
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.algorithm = Objects.requireNonNull(algorithm, "algorithm");
+        chunks = new LruCache<ChunkKey, WallGrid>(cacheCapacity);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns true if there is a passage leaving the cell at the given world coordinates in
+     * the given direction. Passages that cross into another chunk are answered from the
+     * boundary openings without generating the other chunk.
+     *
+     * @param x The column of the cell, any long.
+     * @param y The row of the cell, any long.
+     * @param direction One of the WallGrid directions.
+     */
+    public boolean isOpen(long x, long y, int direction) {
+        long chunkX = Math.floorDiv(x, chunkSize);
+        long chunkY = Math.floorDiv(y, chunkSize);
+        int localX = Math.floorMod(x, chunkSize);
+        int localY = Math.floorMod(y, chunkSize);
+        switch (direction) {
+        case WallGrid.EAST:
+            if (localX == chunkSize - 1) {
+                return localY == eastOpening(chunkX, chunkY);
+            }
+            break;
+        case WallGrid.WEST:
+            if (localX == 0) {
+                return localY == eastOpening(chunkX - 1, chunkY);
+            }
+            break;
+        case WallGrid.SOUTH:
+            if (localY == chunkSize - 1) {
+                return localX == southOpening(chunkX, chunkY);
+            }
+            break;
+        case WallGrid.NORTH:
+            if (localY == 0) {
+                return localX == southOpening(chunkX, chunkY - 1);
+            }
+            break;
+        default:
+            return false;
+        }
+        WallGrid chunk = chunk(chunkX, chunkY);
+        return chunk.isOpen(chunk.id(localX, localY), direction);
+    }
+
+    /**
+     * Returns the passages inside the chunk with the given chunk coordinates, generating it
+     * if it is not cached. The grid is shared with the cache and must not be changed.
+     */
+    WallGrid chunk(long chunkX, long chunkY) {
+        ChunkKey key = new ChunkKey(chunkX, chunkY);
+        WallGrid chunk = chunks.get(key);
+        if (chunk == null) {
+            // Two threads may both generate a missing chunk, which gives the same grid twice
+            chunk = generateChunk(chunkX, chunkY);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Carves the chunk with the given chunk coordinates from its own seed.
+     */
+    WallGrid generateChunk(long chunkX, long chunkY) {
+        Maze maze = new Maze(chunkSize, chunkSize, false, hash(chunkX, chunkY, CHUNK_SALT));
+        maze.setQuiet(true);
+        algorithm.carve(maze);
+        synchronized (this) {
+            generatedChunks++;
+        }
+        return maze.grid;
+    }
+
+    /**
+     * Returns the row of the opening in the east side of the chunk.
+     */
+    int eastOpening(long chunkX, long chunkY) {
+        return (int) Math.floorMod(hash(chunkX, chunkY, EAST_SALT), (long) chunkSize);
+    }
+
+    /**
+     * Returns the column of the opening in the south side of the chunk.
+     */
+    int southOpening(long chunkX, long chunkY) {
+        return (int) Math.floorMod(hash(chunkX, chunkY, SOUTH_SALT), (long) chunkSize);
+    }
+
+    /**
+     * Returns the number of chunks generated so far, including chunks generated again after
+     * they were dropped from the cache.
+     */
+    public synchronized long getGeneratedChunks() {
+        return generatedChunks;
+    }
+
+    /**
+     * Returns the number of chunks in memory.
+     */
+    public int getCachedChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Mixes the world seed, the chunk coordinates and a salt into a seed using the finalizer
+     * of SplitMix64, so neighboring chunks get unrelated seeds.
+     */
+    private long hash(long chunkX, long chunkY, long salt) {
+        long h = seed ^ salt;
+        h = mix(h + chunkX * 0x9E3779B97F4A7C15L);
+        h = mix(h + chunkY * 0xC2B2AE3D27D4EB4FL);
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The coordinates of a chunk as the key of the cache.
+     */
+    private static final class ChunkKey {
+
+        private final long x;
+
+        private final long y;
+
+        ChunkKey(long x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ChunkKey)) {
+                return false;
+            }
+            ChunkKey key = (ChunkKey) other;
+            return x == key.x && y == key.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(mix(x * 31 + y));
+        }
+    }
+}
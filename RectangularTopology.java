@@ -0,0 +1,42 @@
+/**
+ * <p>
+ * The classic maze shape: a rectangle of square cells with four neighbors each, in the
+ * WallGrid directions NORTH, EAST, SOUTH and WEST. EAST and SOUTH are the forward
+ * directions, so a cell needs two passage bits.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class RectangularTopology extends GridTopology {
+
+    /* The change in id for every direction. */
+    private final int[] offsets;
+
+    /* The directions blocked by the left and right edges, by column. */
+    private final int[] columnMasks;
+
+    /* The directions blocked by the top and bottom edges, by row. */
+    private final int[] rowMasks;
+
+    /**
+     * Creates a rectangle of the given size.
+     *
+     * @param columns The number of columns.
+     * @param rows The number of rows.
+     */
+    public RectangularTopology(int columns, int rows) {
+        super(columns, rows,
+                new int[] {WallGrid.SOUTH, WallGrid.WEST, WallGrid.NORTH, WallGrid.EAST},
+                new int[] {WallGrid.EAST, WallGrid.SOUTH});
+        offsets = new int[] {-columns, 1, columns, -1};
+        columnMasks = edgeMasks(columns, 1 << WallGrid.WEST, 1 << WallGrid.EAST);
+        rowMasks = edgeMasks(rows, 1 << WallGrid.NORTH, 1 << WallGrid.SOUTH);
+    }
+
+    @Override
+    public int neighbor(int id, int direction) {
+        int row = id / columns;
+        int mask = columnMasks[id - row * columns] | rowMasks[row];
+        return (mask & (1 << direction)) != 0 ? -1 : id + offsets[direction];
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Divides one rectangular chamber of a maze using the recursive division algorithm.<br>
+ * The grid must start with every inner wall removed. A wall with a single gap is placed
+ * across the chamber, which splits it into two sub-chambers that never overlap. Large
+ * sub-chambers are divided by new tasks on the same ForkJoinPool, small ones are finished
+ * by the current thread with an explicit stack. Different tasks only ever close walls
+ * inside their own chamber, and every write is atomic on its word of the grid, so no
+ * locks are needed. Every task splits its random number generator for its two sub-tasks
+ * before forking them, so the maze does not depend on which thread runs which task.
+ * </p>
+ * Sources:
+ * <ul>
+ * <li>https://en.wikipedia.org/wiki/Maze_generation_algorithm#Recursive_division_method</li>
+ * </ul>
+ *
+ * @author tekgeek88
+ */
+public class RecursiveDivisionTask extends RecursiveAction {
+
+    /** An automatically generated serialUID. */
+    private static final long serialVersionUID = -3385121564981262390L;
+
+    /** Chambers with fewer cells than this are divided without forking new tasks. */
+    static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    private final WallGrid grid;
+
+    private final int x;
+
+    private final int y;
+
+    private final int width;
+
+    private final int depth;
+
+    /* The random number generator owned by this task. */
+    private final SplittableRandom random;
+
+    /**
+     * Creates a task for the chamber with the given top left corner and size.
+     *
+     * @param grid The shared grid to put the walls into.
+     * @param x The left column of the chamber.
+     * @param y The top row of the chamber.
+     * @param width The number of columns in the chamber.
+     * @param depth The number of rows in the chamber.
+     * @param random The random number generator of the chamber, not shared with other tasks.
+     */
+    public RecursiveDivisionTask(WallGrid grid, int x, int y, int width, int depth, SplittableRandom random) {
+        this.grid = grid;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.depth = depth;
+        this.random = random;
+    }
+
+    @Override
+    protected void compute() {
+        if (width < 2 || depth < 2) {
+            // A corridor has nothing left to divide, however many cells it has
+            return;
+        }
+        if ((long) width * depth < SEQUENTIAL_THRESHOLD) {
+            divideSequentially();
+        } else {
+            int[] chambers = new int[8];
+            divide(x, y, width, depth, chambers, 0);
+            invokeAll(new RecursiveDivisionTask(grid, chambers[0], chambers[1], chambers[2], chambers[3], random.split()),
+                    new RecursiveDivisionTask(grid, chambers[4], chambers[5], chambers[6], chambers[7], random.split()));
+        }
+    }
+
+    /**
+     * Divides this chamber all the way down using a stack of chambers instead of recursion.
+     */
+    private void divideSequentially() {
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = x;
+        stack[top++] = y;
+        stack[top++] = width;
+        stack[top++] = depth;
+        while (top > 0) {
+            int chamberDepth = stack[--top];
+            int chamberWidth = stack[--top];
+            int chamberY = stack[--top];
+            int chamberX = stack[--top];
+            if (chamberWidth < 2 || chamberDepth < 2) {
+                continue;
+            }
+            if (top + 8 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            divide(chamberX, chamberY, chamberWidth, chamberDepth, stack, top);
+            top += 8;
+        }
+    }
+
+    /**
+     * Puts a wall with one gap across the chamber and writes the two sub-chambers into the
+     * given array as x, y, width and depth. The chamber is at least two cells wide and deep.
+     */
+    private void divide(int chamberX, int chamberY, int chamberWidth, int chamberDepth, int[] chambers, int offset) {
+        assert chamberWidth >= 2 && chamberDepth >= 2 : "A corridor can not be divided";
+        boolean horizontal;
+        if (chamberDepth > chamberWidth) {
+            horizontal = true;
+        } else if (chamberWidth > chamberDepth) {
+            horizontal = false;
+        } else {
+            horizontal = random.nextBoolean();
+        }
+
+        if (horizontal) {
+            // Close the south side of one row except for the gap
+            int wallRow = chamberY + random.nextInt(chamberDepth - 1);
+            int gap = chamberX + random.nextInt(chamberWidth);
+            for (int column = chamberX; column < chamberX + chamberWidth; column++) {
+                if (column != gap) {
+                    grid.closeConcurrently(grid.id(column, wallRow), WallGrid.SOUTH);
+                }
+            }
+            int topDepth = wallRow - chamberY + 1;
+            chambers[offset] = chamberX;
+            chambers[offset + 1] = chamberY;
+            chambers[offset + 2] = chamberWidth;
+            chambers[offset + 3] = topDepth;
+            chambers[offset + 4] = chamberX;
+            chambers[offset + 5] = wallRow + 1;
+            chambers[offset + 6] = chamberWidth;
+            chambers[offset + 7] = chamberDepth - topDepth;
+        } else {
+            // Close the east side of one column except for the gap
+            int wallColumn = chamberX + random.nextInt(chamberWidth - 1);
+            int gap = chamberY + random.nextInt(chamberDepth);
+            for (int row = chamberY; row < chamberY + chamberDepth; row++) {
+                if (row != gap) {
+                    grid.closeConcurrently(grid.id(wallColumn, row), WallGrid.EAST);
+                }
+            }
+            int leftWidth = wallColumn - chamberX + 1;
+            chambers[offset] = chamberX;
+            chambers[offset + 1] = chamberY;
+            chambers[offset + 2] = leftWidth;
+            chambers[offset + 3] = chamberDepth;
+            chambers[offset + 4] = wallColumn + 1;
+            chambers[offset + 5] = chamberY;
+            chambers[offset + 6] = chamberWidth - leftWidth;
+            chambers[offset + 7] = chamberDepth;
+        }
+    }
+}
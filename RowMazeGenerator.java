@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Maze algorithms that carve every row without looking at any other row.<br>
+ * Both algorithms only open passages to the east and to the south, so a row only writes
+ * its own passages. The rows of a grid can therefore be carved in parallel, and a maze can
+ * be streamed row by row to a {@link MazeRowSink} with memory proportional to the width.
+ * They are fast, but the mazes have a strong diagonal or vertical bias.
+ * </p>
+ * Sources:
+ * <ul>
+ * <li>http://weblog.jamisbuck.org/2011/2/1/maze-generation-binary-tree-algorithm</li>
+ * <li>http://weblog.jamisbuck.org/2011/2/3/maze-generation-sidewinder-algorithm</li>
+ * </ul>
+ *
+ * @author tekgeek88
+ */
+public enum RowMazeGenerator {
+
+    /**
+     * Every cell opens a passage either east or south at random. The last row can only go
+     * east and the last column can only go south, which leaves two long open corridors.
+     */
+    BINARY_TREE {
+        @Override
+        void carveRow(boolean lastRow, boolean[] east, boolean[] south, SplittableRandom random) {
+            int width = east.length;
+            for (int x = 0; x < width; x++) {
+                boolean canGoEast = x < width - 1;
+                boolean goEast = canGoEast && (lastRow || random.nextBoolean());
+                east[x] = goEast;
+                south[x] = !goEast && !lastRow;
+            }
+        }
+    },
+
+    /**
+     * Cells are joined east into runs. Whenever a run is closed one random cell of the run
+     * opens a passage south. The last row is a single corridor.
+     */
+    SIDEWINDER {
+        @Override
+        void carveRow(boolean lastRow, boolean[] east, boolean[] south, SplittableRandom random) {
+            int width = east.length;
+            int runStart = 0;
+            for (int x = 0; x < width; x++) {
+                south[x] = false;
+                boolean closeRun = x == width - 1 || (!lastRow && random.nextBoolean());
+                east[x] = !closeRun;
+                if (closeRun && !lastRow) {
+                    south[runStart + random.nextInt(x - runStart + 1)] = true;
+                    runStart = x + 1;
+                }
+            }
+        }
+    };
+
+    /** The number of rows carved by one parallel task. */
+    private static final int ROWS_PER_TASK = 64;
+
+    /**
+     * Carves a single row.
+     *
+     * @param lastRow True for the bottom row, which can not open south.
+     * @param east Receives the east passages of the row.
+     * @param south Receives the south passages of the row.
+     * @param random The random number generator of the block of rows.
+     */
+    abstract void carveRow(boolean lastRow, boolean[] east, boolean[] south, SplittableRandom random);
+
+    /**
+     * Carves a maze into an empty grid, with blocks of rows carved in parallel on the
+     * common ForkJoinPool.<br>
+     * Every block gets a generator split from the given one before any block runs, so the
+     * maze depends only on the state of the generator and not on the order of the threads.
+     * @param grid The grid to carve.
+     * @param random The random number generator of the maze.
+     * @throws UnsupportedOperationException if the grid is not rectangular.
+     */
+    public void carve(WallGrid grid, SplittableRandom random) {
+        if (!grid.isRectangular()) {
+            throw new UnsupportedOperationException(this + " needs a rectangular grid, not " + grid.getTopology());
+        }
+        int width = grid.getWidth();
+        int depth = grid.getDepth();
+        int tasks = (depth + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        SplittableRandom[] randoms = new SplittableRandom[tasks];
+        for (int task = 0; task < tasks; task++) {
+            randoms[task] = random.split();
+        }
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            boolean[] east = new boolean[width];
+            boolean[] south = new boolean[width];
+            SplittableRandom blockRandom = randoms[task];
+            int lastRow = Math.min(depth, (task + 1) * ROWS_PER_TASK);
+            for (int row = task * ROWS_PER_TASK; row < lastRow; row++) {
+                carveRow(row == depth - 1, east, south, blockRandom);
+                for (int x = 0; x < width; x++) {
+                    // Rows of neighboring tasks may share a word of the grid
+                    if (east[x]) {
+                        grid.carveConcurrently(grid.id(x, row), WallGrid.EAST);
+                    }
+                    if (south[x]) {
+                        grid.carveConcurrently(grid.id(x, row), WallGrid.SOUTH);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Generates a maze of the given size from a random seed and pushes every row to the sink.
+     *
+     * @param width The number of columns.
+     * @param rows The number of rows, which may be far more than fits in memory.
+     * @param sink Receives the rows from top to bottom.
+     * @throws IOException if the sink fails to accept a row.
+     */
+    public void generate(int width, long rows, MazeRowSink sink) throws IOException {
+        generate(width, rows, ThreadLocalRandom.current().nextLong(), sink);
+    }
+
+    /**
+     * Generates a maze of the given size and pushes every row to the sink. The same size and
+     * seed always produce the same rows.
+     *
+     * @param width The number of columns.
+     * @param rows The number of rows, which may be far more than fits in memory.
+     * @param seed The seed of the random number generator.
+     * @param sink Receives the rows from top to bottom.
+     * @throws IOException if the sink fails to accept a row.
+     */
+    public void generate(int width, long rows, long seed, MazeRowSink sink) throws IOException {
+        if (width < 1 || rows < 1) {
+            throw new IllegalArgumentException("Maze dimensions must be positive: " + width + " x " + rows);
+        }
+        boolean[] east = new boolean[width];
+        boolean[] south = new boolean[width];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long row = 0; row < rows; row++) {
+            carveRow(row == rows - 1, east, south, random);
+            sink.acceptRow(row, east, south);
+        }
+        sink.finish();
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * The cost of walking through every passage of a {@link WallGrid}, such as mud, water or a
+ * door that has to be opened.<br>
+ * Costs are small whole numbers from 1 to {@link #MAX_COST}, one unsigned byte per passage.
+ * Like the passages themselves every cost is stored once, in the slot of the cell the
+ * passage leaves in a forward direction, so both sides of a passage always agree. Walls
+ * keep a cost as well, which only matters if they are carved later.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class Terrain {
+
+    /** The highest cost of a passage. */
+    public static final int MAX_COST = 255;
+
+    private final WallGrid grid;
+
+    private final Topology topology;
+
+    /* The cost of every passage by cell and slot, as an unsigned byte. */
+    private final byte[] costs;
+
+    /* The highest cost assigned so far, which bounds the buckets of the solver. */
+    private int maxCost = 1;
+
+    /**
+     * Creates terrain for the given grid where every passage costs one.
+     * @param grid The passages the costs belong to.
+     */
+    public Terrain(WallGrid grid) {
+        this.grid = grid;
+        topology = grid.getTopology();
+        costs = new byte[Math.multiplyExact(grid.size(), grid.slots())];
+        clear();
+    }
+
+    public WallGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the highest cost of any passage.
+     */
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Returns the cost of the passage leaving the cell in the given direction.
+     * @throws IllegalArgumentException if the direction leaves the grid.
+     */
+    public int cost(int id, int direction) {
+        return costs[index(id, direction)] & 0xFF;
+    }
+
+    /**
+     * Sets the cost of the passage leaving the cell in the given direction, which is also
+     * the cost of the way back.
+     * @param cost A cost from 1 to {@link #MAX_COST}.
+     */
+    public void setCost(int id, int direction, int cost) {
+        if (cost < 1 || cost > MAX_COST) {
+            throw new IllegalArgumentException("Costs are between 1 and " + MAX_COST + ": " + cost);
+        }
+        costs[index(id, direction)] = (byte) cost;
+        maxCost = Math.max(maxCost, cost);
+    }
+
+    /**
+     * Makes every passage cost one.
+     */
+    public void clear() {
+        Arrays.fill(costs, (byte) 1);
+        maxCost = 1;
+    }
+
+    /**
+     * Gives every passage a random cost. Most passages stay easy to walk through and a few
+     * are expensive: half cost one and the rest are spread evenly up to the highest cost.
+     * @param highestCost The highest cost from 1 to {@link #MAX_COST}.
+     * @param random The random number generator of the maze.
+     */
+    public void randomize(int highestCost, SplittableRandom random) {
+        if (highestCost < 1 || highestCost > MAX_COST) {
+            throw new IllegalArgumentException("Costs are between 1 and " + MAX_COST + ": " + highestCost);
+        }
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = (byte) (highestCost == 1 || random.nextBoolean() ? 1 : 1 + random.nextInt(highestCost));
+        }
+        maxCost = highestCost;
+    }
+
+    /**
+     * Returns the total cost of walking along a path of neighboring cells.
+     * @param path The ids of the cells in order, or null.
+     * @return the sum of the costs of the passages or -1 for a null path.
+     */
+    public long pathCost(int[] path) {
+        if (path == null) {
+            return -1;
+        }
+        long total = 0;
+        for (int i = 1; i < path.length; i++) {
+            total += cost(path[i - 1], grid.direction(path[i - 1], path[i]));
+        }
+        return total;
+    }
+
+    /**
+     * Builds an undirected Graph view of the maze where each passage is an edge that costs
+     * what the terrain says.
+     *
+     * @return a new Graph of the current passages.
+     */
+    public Graph<Cell> toGraph() {
+        Graph<Cell> graph = new Graph<Cell>();
+        for (int id = 0; id < grid.size(); id++) {
+            for (int slot = 0; slot < grid.slots(); slot++) {
+                int direction = topology.slotDirection(slot);
+                if (grid.isOpen(id, direction)) {
+                    graph.addEdge(grid.cell(id), grid.cell(topology.neighbor(id, direction)), cost(id, direction));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Finds the byte that stores the cost of a passage, in the same place WallGrid keeps
+     * the passage bit.
+     */
+    private int index(int id, int direction) {
+        int neighbor = topology.neighbor(id, direction);
+        if (neighbor < 0) {
+            throw new IllegalArgumentException("No passage leaves " + grid.cell(id) + " in direction " + direction);
+        }
+        int slot = topology.slot(direction);
+        if (slot >= 0) {
+            return id * grid.slots() + slot;
+        }
+        return neighbor * grid.slots() + topology.slot(topology.opposite(direction));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * <p>
+ * The shape of a maze: which cells exist and which cells are neighbors.<br>
+ * Cells are packed ids laid out row by row, <code>id = row * getColumns() + column</code>,
+ * and neighbors are found in a numbered set of directions. Implementations precompute
+ * their neighbor offsets and boundary masks, so finding a neighbor never allocates.
+ * </p>
+ * <p>
+ * Every passage is stored once, by the cell it leaves in one of the <em>forward</em>
+ * directions. Forward directions always lead to a larger id and own a slot of
+ * {@link WallGrid}; the other directions are read from the neighbor on the other side.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public interface Topology {
+
+    /**
+     * Returns the number of cells.
+     */
+    int size();
+
+    /**
+     * Returns the number of cells in a row.
+     */
+    int getColumns();
+
+    /**
+     * Returns the number of rows, counting the rows of every layer for layered topologies.
+     */
+    int getRows();
+
+    /**
+     * Returns the number of directions, numbered from zero. A cell may have fewer
+     * neighbors than this, for example on the boundary.
+     */
+    int directions();
+
+    /**
+     * Returns the id of the neighbor in the given direction or -1 if there is none.
+     */
+    int neighbor(int id, int direction);
+
+    /**
+     * Returns the direction that leads back from the neighbor in the given direction.
+     */
+    int opposite(int direction);
+
+    /**
+     * Returns the number of forward directions, which is the number of passage bits per cell.
+     */
+    int slots();
+
+    /**
+     * Returns the passage slot of a forward direction or -1 for any other direction.
+     */
+    int slot(int direction);
+
+    /**
+     * Returns the forward direction stored in the given slot.
+     */
+    int slotDirection(int slot);
+
+    /**
+     * Returns a lower bound on the number of moves between two cells when there are no
+     * walls, which A* uses as its heuristic. It never overestimates and changes by at most
+     * one between neighbors.
+     */
+    int distance(int from, int to);
+}
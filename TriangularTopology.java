@@ -0,0 +1,55 @@
+/**
+ * <p>
+ * Rows of triangles that alternately point up and down.<br>
+ * The triangle in column x and row y points up when x + y is even. Every triangle has a
+ * neighbor to the EAST and WEST, an upward triangle has its third neighbor to the SOUTH
+ * and a downward triangle to the NORTH. The WallGrid directions are reused, so a cell
+ * needs the same two passage bits as a square cell.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class TriangularTopology extends GridTopology {
+
+    /* The change in id for every direction. */
+    private final int[] offsets;
+
+    /* The directions blocked by the left and right edges, by column. */
+    private final int[] columnMasks;
+
+    /* The directions blocked by the top and bottom edges, by row. */
+    private final int[] rowMasks;
+
+    /* The directions a triangle does not have, indexed by (x + y) & 1. */
+    private final int[] shapeMasks = {1 << WallGrid.NORTH, 1 << WallGrid.SOUTH};
+
+    /**
+     * Creates rows of triangles.
+     *
+     * @param columns The number of triangles in a row.
+     * @param rows The number of rows.
+     */
+    public TriangularTopology(int columns, int rows) {
+        super(columns, rows,
+                new int[] {WallGrid.SOUTH, WallGrid.WEST, WallGrid.NORTH, WallGrid.EAST},
+                new int[] {WallGrid.EAST, WallGrid.SOUTH});
+        offsets = new int[] {-columns, 1, columns, -1};
+        columnMasks = edgeMasks(columns, 1 << WallGrid.WEST, 1 << WallGrid.EAST);
+        rowMasks = edgeMasks(rows, 1 << WallGrid.NORTH, 1 << WallGrid.SOUTH);
+    }
+
+    /**
+     * Returns true if the triangle in the given column and row points up.
+     */
+    public static boolean pointsUp(int x, int y) {
+        return ((x + y) & 1) == 0;
+    }
+
+    @Override
+    public int neighbor(int id, int direction) {
+        int row = id / columns;
+        int column = id - row * columns;
+        int mask = columnMasks[column] | rowMasks[row] | shapeMasks[(column + row) & 1];
+        return (mask & (1 << direction)) != 0 ? -1 : id + offsets[direction];
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * <p>
+ * The visited cells of a grid, one bit per cell, with every row padded to whole
+ * <code>long</code> words.<br>
+ * A summary word holds one bit per row that is set while the row may still hold an unvisited
+ * cell. Finding the first unvisited cell skips finished rows 64 at a time and finished words
+ * of a row with {@link Long#numberOfTrailingZeros(long)} instead of testing cell by cell.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class VisitedRows {
+
+    private final int width;
+
+    /* The number of words used by one row. */
+    private final int wordsPerRow;
+
+    /* The visited bits row by row. Padding bits past the last column are set. */
+    private final long[] words;
+
+    /* One bit per row, cleared once the row is known to be fully visited. */
+    private final long[] rowsWithUnvisited;
+
+    /* Every row above this one is fully visited. */
+    private int firstRow;
+
+    /**
+     * Creates a set where no cell has been visited.
+     * @param width The number of columns.
+     * @param depth The number of rows.
+     */
+    public VisitedRows(int width, int depth) {
+        this.width = width;
+        wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+        words = new long[depth * wordsPerRow];
+        int padding = width % Long.SIZE;
+        if (padding != 0) {
+            for (int row = 0; row < depth; row++) {
+                words[row * wordsPerRow + wordsPerRow - 1] = -1L << padding;
+            }
+        }
+        rowsWithUnvisited = new long[(depth + Long.SIZE - 1) / Long.SIZE];
+        for (int row = 0; row < depth; row++) {
+            rowsWithUnvisited[row >>> 6] |= 1L << row;
+        }
+    }
+
+    /**
+     * Returns true if the cell has been visited.
+     */
+    public boolean get(int id) {
+        int x = id % width;
+        return (words[(id / width) * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Marks the cell as visited.
+     */
+    public void set(int id) {
+        int x = id % width;
+        words[(id / width) * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * Finds the unvisited cell that comes first in row order. A row is only found to be
+     * fully visited once, after which its summary bit is cleared and it is never read again.
+     * @return The packed id of the cell or -1 if every cell has been visited.
+     */
+    public int firstUnvisited() {
+        for (int summary = firstRow >>> 6; summary < rowsWithUnvisited.length; summary++) {
+            long rows = rowsWithUnvisited[summary];
+            while (rows != 0) {
+                int row = (summary << 6) + Long.numberOfTrailingZeros(rows);
+                int base = row * wordsPerRow;
+                for (int word = 0; word < wordsPerRow; word++) {
+                    long unvisited = ~words[base + word];
+                    if (unvisited != 0) {
+                        firstRow = row;
+                        return row * width + (word << 6) + Long.numberOfTrailingZeros(unvisited);
+                    }
+                }
+                rows &= rows - 1;
+                rowsWithUnvisited[summary] = rows;
+            }
+        }
+        return -1;
+    }
+}
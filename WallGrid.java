@@ -0,0 +1,384 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Compact passage storage for a maze.<br>
+ * Every cell owns one bit per forward direction of its {@link Topology}, packed into a
+ * <code>long[]</code>. On a rectangle those are the passages to its east and south
+ * neighbors. The passages in the other directions are read from the bits of the neighbor
+ * that owns them, so every passage is stored exactly once. A cleared bit is a wall, which
+ * means a new grid is a maze that is all walls.
+ * </p>
+ * <p>
+ * Cells are addressed by packed ids where <code>id = y * width + x</code>.
+ * A {@link Graph} of the maze can be produced on demand with {@link #toGraph()}.
+ * </p>
+ *
+ * @author tekgeek88
+ */
+public class WallGrid {
+
+    public static final int NORTH = 0;
+
+    public static final int EAST = 1;
+
+    public static final int SOUTH = 2;
+
+    public static final int WEST = 3;
+
+    /** The number of directions a cell of a rectangle can be connected in. */
+    public static final int DIRECTIONS = 4;
+
+    /** Atomic access to single words of the passage bits for concurrent writers. */
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** The shape of the grid. */
+    private final Topology topology;
+
+    /** The number of passage bits owned by each cell, one per forward direction. */
+    private final int bitsPerCell;
+
+    /** The width of the grid in cells. */
+    private final int width;
+
+    /** The depth of the grid in cells. */
+    private final int depth;
+
+    /** The passage bits, bitsPerCell per cell: one per forward direction. */
+    private final long[] passages;
+
+    /**
+     * Creates a grid of the given size where every cell is surrounded by walls.
+     *
+     * @param width The number of columns.
+     * @param depth The number of rows.
+     */
+    public WallGrid(int width, int depth) {
+        this(new RectangularTopology(width, depth));
+    }
+
+    /**
+     * Creates a grid of the given shape where every cell is surrounded by walls.
+     *
+     * @param topology The cells and their neighbors.
+     */
+    public WallGrid(Topology topology) {
+        this.topology = topology;
+        width = topology.getColumns();
+        depth = topology.getRows();
+        bitsPerCell = topology.slots();
+        long bits = (long) topology.size() * bitsPerCell;
+        passages = new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Returns true if the grid is a plain rectangle of square cells, which some algorithms
+     * and the text display require.
+     */
+    public boolean isRectangular() {
+        return topology.getClass() == RectangularTopology.class;
+    }
+
+    /**
+     * Returns the number of directions of the topology.
+     */
+    public int directions() {
+        return topology.directions();
+    }
+
+    /**
+     * Returns the number of passage bits owned by each cell.
+     */
+    public int slots() {
+        return bitsPerCell;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the total number of cells in the grid.
+     * @return width * depth.
+     */
+    public int size() {
+        return width * depth;
+    }
+
+    /**
+     * Returns the packed id of the cell at the given coordinates.
+     */
+    public int id(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * Returns the packed id of the given cell.
+     */
+    public int id(Cell cell) {
+        return id(cell.getX(), cell.getY());
+    }
+
+    public int x(int id) {
+        return id % width;
+    }
+
+    public int y(int id) {
+        return id / width;
+    }
+
+    /**
+     * Creates a new Cell for the given packed id.
+     */
+    public Cell cell(int id) {
+        return new Cell(x(id), y(id));
+    }
+
+    /**
+     * Returns true if the given coordinates are inside the grid.
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < depth;
+    }
+
+    /**
+     * Returns the direction that leads back from the neighbor in the given direction.
+     */
+    public int opposite(int direction) {
+        return topology.opposite(direction);
+    }
+
+    /**
+     * Returns the id of the neighbor in the given direction or -1 if it would fall
+     * outside of the grid.
+     *
+     * @param id The packed id of the cell.
+     * @param direction One of the directions of the topology, such as NORTH.
+     * @return The packed id of the neighbor or -1.
+     */
+    public int neighbor(int id, int direction) {
+        return topology.neighbor(id, direction);
+    }
+
+    /**
+     * Returns the direction that leads from one cell to the other or -1 if the
+     * cells are not neighbors.
+     */
+    public int direction(int from, int to) {
+        for (int direction = 0; direction < topology.directions(); direction++) {
+            if (topology.neighbor(from, direction) == to) {
+                return direction;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if there is a passage leaving the cell in the given direction.
+     */
+    public boolean isOpen(int id, int direction) {
+        long bit = bitIndex(id, direction);
+        return bit >= 0 && (passages[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Removes the wall leaving the cell in the given direction.
+     * Walls on the outer edge of the grid can not be removed.
+     */
+    public void carve(int id, int direction) {
+        long bit = bitIndex(id, direction);
+        if (bit >= 0) {
+            passages[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Removes the wall between two neighboring cells.
+     */
+    public void connect(int from, int to) {
+        int direction = direction(from, to);
+        if (direction >= 0) {
+            carve(from, direction);
+        }
+    }
+
+    /**
+     * Returns true if there is a passage between the two cells.
+     */
+    public boolean isAdjacent(int from, int to) {
+        int direction = direction(from, to);
+        return direction >= 0 && isOpen(from, direction);
+    }
+
+    /**
+     * Returns true if at least one passage leads into the given cell, which means
+     * the cell has been made part of the maze.
+     */
+    public boolean hasPassage(int id) {
+        for (int direction = 0; direction < topology.directions(); direction++) {
+            if (isOpen(id, direction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the wall leaving the cell in the given direction back.
+     */
+    public void close(int id, int direction) {
+        long bit = bitIndex(id, direction);
+        if (bit >= 0) {
+            passages[(int) (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Removes a wall like {@link #carve(int, int)} but is safe to call from several threads
+     * at once. Cells that share a word of the bit array may be written by different threads,
+     * so the word is updated with an atomic bitwise or instead of a lock.
+     */
+    public void carveConcurrently(int id, int direction) {
+        long bit = bitIndex(id, direction);
+        if (bit >= 0) {
+            WORDS.getAndBitwiseOr(passages, (int) (bit >>> 6), 1L << bit);
+        }
+    }
+
+    /**
+     * Puts a wall back like {@link #close(int, int)} but is safe to call from several threads at once.
+     */
+    public void closeConcurrently(int id, int direction) {
+        long bit = bitIndex(id, direction);
+        if (bit >= 0) {
+            WORDS.getAndBitwiseAnd(passages, (int) (bit >>> 6), ~(1L << bit));
+        }
+    }
+
+    /**
+     * Copies the passages of a smaller grid into this grid with its top left cell at the
+     * given offset. Only passages are added, so several threads may copy grids that do
+     * not overlap at the same time. Both grids must be rectangular.
+     *
+     * @param tile The grid to copy.
+     * @param offsetX The column of this grid that receives the first column of the tile.
+     * @param offsetY The row of this grid that receives the first row of the tile.
+     */
+    public void copyFrom(WallGrid tile, int offsetX, int offsetY) {
+        for (int y = 0; y < tile.depth; y++) {
+            for (int x = 0; x < tile.width; x++) {
+                int source = tile.id(x, y);
+                int target = id(offsetX + x, offsetY + y);
+                if (tile.isOpen(source, EAST)) {
+                    carveConcurrently(target, EAST);
+                }
+                if (tile.isOpen(source, SOUTH)) {
+                    carveConcurrently(target, SOUTH);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the passage bits as bytes, slots() bits per cell in the order of the packed ids.
+     * On a rectangle the lower bit of a cell is its east passage and the higher bit its
+     * south passage.
+     * This is the most compact form of the maze and is cheap to send to other processes.
+     *
+     * @return a new array of (size() * slots() + 7) / 8 bytes.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(int) (((long) size() * bitsPerCell + Byte.SIZE - 1) / Byte.SIZE)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (passages[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+
+    /**
+     * Removes every inner wall so that each cell is open to all of its neighbors.
+     */
+    public void openAll() {
+        if (!isRectangular()) {
+            clear();
+            for (int id = 0; id < size(); id++) {
+                for (int slot = 0; slot < bitsPerCell; slot++) {
+                    carve(id, topology.slotDirection(slot));
+                }
+            }
+            return;
+        }
+        Arrays.fill(passages, -1L);
+        // The east side of the last column and the south side of the last row are the border
+        for (int y = 0; y < depth; y++) {
+            clearBit((long) id(width - 1, y) * bitsPerCell);
+        }
+        for (int x = 0; x < width; x++) {
+            clearBit((long) id(x, depth - 1) * bitsPerCell + 1);
+        }
+        // Bits past the last cell are not used
+        long used = (long) size() * bitsPerCell;
+        if (used % Long.SIZE != 0) {
+            passages[passages.length - 1] &= -1L >>> (Long.SIZE - used % Long.SIZE);
+        }
+    }
+
+    /**
+     * Puts every wall back.
+     */
+    public void clear() {
+        Arrays.fill(passages, 0L);
+    }
+
+    /**
+     * Builds an undirected Graph view of the maze where each passage is an edge of cost one.
+     * The graph is a copy and is not updated when the grid changes.
+     *
+     * @return a new Graph of the current passages.
+     */
+    public Graph<Cell> toGraph() {
+        Graph<Cell> graph = new Graph<Cell>();
+        for (int id = 0; id < size(); id++) {
+            for (int slot = 0; slot < bitsPerCell; slot++) {
+                int direction = topology.slotDirection(slot);
+                if (isOpen(id, direction)) {
+                    graph.addEdge(cell(id), cell(topology.neighbor(id, direction)));
+                }
+            }
+        }
+        return graph;
+    }
+
+    private void clearBit(long bit) {
+        passages[(int) (bit >>> 6)] &= ~(1L << bit);
+    }
+
+    /**
+     * Finds the bit that stores the passage leaving a cell in the given direction.
+     * Passages that are not in a forward direction belong to the neighbor on the other
+     * side of the wall.
+     *
+     * @return the bit index or -1 if the passage would leave the grid.
+     */
+    private long bitIndex(int id, int direction) {
+        int neighbor = topology.neighbor(id, direction);
+        if (neighbor < 0) {
+            return -1;
+        }
+        int slot = topology.slot(direction);
+        if (slot >= 0) {
+            return (long) id * bitsPerCell + slot;
+        }
+        return (long) neighbor * bitsPerCell + topology.slot(topology.opposite(direction));
+    }
+}